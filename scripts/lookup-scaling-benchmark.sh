@@ -0,0 +1,74 @@
+#!/usr/bin/env sh
+# Mede a latência das buscas por usuario_id (endereco/telefone) e por e-mail à medida que as tabelas crescem.
+#
+# Uso: scripts/lookup-scaling-benchmark.sh [indexado|particionado] [tamanhos...]
+#
+# Cria um banco descartável ($BENCH_DB), aplica todas as migrações do projeto em ordem de versão (db/migration,
+# db/vendor/postgresql e, no modo particionado, db/partitioned), cresce o número de usuários em etapas (cada um
+# com um endereço e um telefone, distribuídos entre $TENANTS tenants) e roda o pgbench em cada etapa. A busca
+# por e-mail filtra pelo tenant, como a aplicação, usando o índice (tenant_id, email). Com os índices a latência
+# média deve se manter estável entre as etapas.
+# Requer psql, pgbench, createdb e dropdb apontando para um PostgreSQL local (variáveis PG* padrão).
+
+set -eu
+
+LAYOUT="${1:-indexado}"
+[ $# -gt 0 ] && shift
+SIZES="${*:-10000 100000 1000000 5000000}"
+BENCH_DB="${BENCH_DB:-db_usuario_bench}"
+DURATION="${DURATION:-15}"
+CLIENTS="${CLIENTS:-4}"
+TENANTS="${TENANTS:-4}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+MIGRATIONS="$ROOT/src/main/resources/db"
+
+dropdb --if-exists "$BENCH_DB"
+createdb "$BENCH_DB"
+
+# Migrações das pastas ordenadas pelo número da versão (V10 depois de V9), como faz o Flyway
+migrations() {
+  {
+    ls "$MIGRATIONS"/migration/V*__*.sql "$MIGRATIONS"/vendor/postgresql/V*__*.sql
+    if [ "$LAYOUT" = "particionado" ]; then
+      ls "$MIGRATIONS"/partitioned/V*__*.sql
+    fi
+  } | awk -F/ '{ v = $NF; sub(/^V/, "", v); sub(/__.*/, "", v); print v " " $0 }' | sort -n | cut -d' ' -f2-
+}
+
+migrations | while IFS= read -r migration; do
+  psql -q -v ON_ERROR_STOP=1 -d "$BENCH_DB" -f "$migration"
+done
+
+LOOKUP="$(mktemp)"
+trap 'rm -f "$LOOKUP"' EXIT
+cat > "$LOOKUP" <<'SQL'
+\set uid random(1, :max_id)
+\set tid :uid % :tenants
+SELECT id, rua, numero, complemento, cidade, estado, cep FROM endereco WHERE usuario_id = :uid;
+SELECT id, numero, ddd FROM telefone WHERE usuario_id = :uid;
+SELECT id, nome, senha FROM usuario WHERE tenant_id = 'tenant' || :tid AND email = 'user' || :uid || '@bench.local';
+SQL
+
+current=0
+for size in $SIZES; do
+  psql -q -v ON_ERROR_STOP=1 -d "$BENCH_DB" <<SQL
+INSERT INTO usuario (id, nome, email, senha, tenant_id)
+SELECT g, 'usuario ' || g, 'user' || g || '@bench.local', 'x', 'tenant' || (g % $TENANTS)
+FROM generate_series($current + 1, $size) g;
+INSERT INTO endereco (rua, numero, cidade, estado, cep, usuario_id, tenant_id)
+SELECT 'Rua ' || g, g::text, 'Cidade', 'SP', '00000-000', g, 'tenant' || (g % $TENANTS)
+FROM generate_series($current + 1, $size) g;
+INSERT INTO telefone (numero, ddd, usuario_id, tenant_id)
+SELECT lpad(g::text, 9, '0'), '11', g, 'tenant' || (g % $TENANTS) FROM generate_series($current + 1, $size) g;
+ANALYZE usuario;
+ANALYZE endereco;
+ANALYZE telefone;
+SQL
+  current=$size
+
+  latency=$(pgbench -n -f "$LOOKUP" -D max_id="$size" -D tenants="$TENANTS" -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" "$BENCH_DB" \
+    | awk '/latency average/ {print $4}')
+  echo "[$LAYOUT] $size usuários: latência média ${latency} ms por busca (endereco + telefone + e-mail)"
+done
+
+dropdb "$BENCH_DB"
@@ -0,0 +1,96 @@
+#!/usr/bin/env sh
+# Mede o tempo entre o lançamento da aplicação e a primeira requisição bem-sucedida (POST /usuario).
+#
+# Uso: scripts/startup-benchmark.sh [jar|cds|native] [repetições]
+#
+#   jar    -> build/libs/usuario-0.0.1-SNAPSHOT.jar          (./gradlew bootJar)
+#   cds    -> build/cds/usuario-0.0.1-SNAPSHOT.jar + AOT/CDS  (./gradlew -Paot cdsArchive)
+#   native -> build/native/nativeCompile/usuario              (./gradlew -Paot nativeCompile)
+#
+# Cada execução cadastra um usuário, então o script usa um banco descartável ($BENCH_DB), recriado no início
+# e removido no fim; o Flyway cria o schema na primeira execução. Requer createdb e dropdb apontando para um
+# PostgreSQL local (variáveis PG* padrão) e a porta livre. Funciona com sh POSIX, GNU ou BSD: o relógio em
+# milissegundos usa o date do GNU quando disponível e o perl nos demais sistemas.
+
+set -eu
+
+MODE="${1:-jar}"
+RUNS="${2:-5}"
+PORT="${SERVER_PORT:-8080}"
+JAVA="${JAVA:-java}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+BENCH_DB="${BENCH_DB:-db_usuario_startup_bench}"
+DB_URL="jdbc:postgresql://${PGHOST:-localhost}:${PGPORT:-5432}/$BENCH_DB"
+DB_USER="${PGUSER:-postgres}"
+DB_PASSWORD="${PGPASSWORD:-1234}"
+
+case "$MODE" in
+  jar)
+    WORKDIR="$ROOT/build/libs"
+    set -- "$JAVA" -jar usuario-0.0.1-SNAPSHOT.jar
+    ;;
+  cds)
+    WORKDIR="$ROOT/build/cds"
+    set -- "$JAVA" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar usuario-0.0.1-SNAPSHOT.jar
+    ;;
+  native)
+    WORKDIR="$ROOT/build/native/nativeCompile"
+    set -- ./usuario
+    ;;
+  *)
+    echo "Modo desconhecido: $MODE (use jar, cds ou native)" >&2
+    exit 1
+    ;;
+esac
+
+# %N é extensão do GNU date; no BSD/macOS a saída não é numérica e o perl (Time::HiRes) assume
+if date +%s%3N | grep -Eq '^[0-9]+$'; then
+  now_ms() {
+    date +%s%3N
+  }
+else
+  now_ms() {
+    perl -MTime::HiRes=time -e 'printf "%d\n", time() * 1000'
+  }
+fi
+
+# sleep fracionário não é POSIX; onde não existir, a espera cai para 1 s (precisão menor na medição)
+pause() {
+  sleep 0.05 2>/dev/null || sleep 1
+}
+
+dropdb --if-exists "$BENCH_DB"
+createdb "$BENCH_DB"
+trap 'dropdb --if-exists "$BENCH_DB" || true' EXIT
+
+total=0
+i=1
+while [ "$i" -le "$RUNS" ]; do
+  email="startup-$i-$$@bench.local"
+  body="{\"nome\":\"bench\",\"email\":\"$email\",\"senha\":\"bench\",\"enderecos\":[],\"telefones\":[]}"
+
+  start=$(now_ms)
+  (cd "$WORKDIR" && exec "$@" --server.port="$PORT" --spring.jpa.show-sql=false \
+      --spring.datasource.url="$DB_URL" --spring.datasource.username="$DB_USER" \
+      --spring.datasource.password="$DB_PASSWORD" >/dev/null 2>&1) &
+  pid=$!
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+      -d "$body" "http://localhost:$PORT/usuario" || true)" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "A aplicação encerrou antes de responder (execução $i)" >&2
+      exit 1
+    fi
+    pause
+  done
+  elapsed=$(( $(now_ms) - start ))
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+
+  echo "[$MODE] execução $i: ${elapsed} ms até a primeira requisição bem-sucedida"
+  total=$(( total + elapsed ))
+  i=$(( i + 1 ))
+done
+
+echo "[$MODE] média: $(( total / RUNS )) ms em $RUNS execuções"
@@ -0,0 +1,42 @@
+package com.ygorportes.usuario.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Acumula histogramas de latência (em microssegundos) e contagem de erros por endpoint
+public class LatencyRecorder {
+
+    // Maior latência registrável: 60 segundos, com 3 dígitos significativos
+    private static final long MAIOR_LATENCIA_MICROS = TimeUnit.SECONDS.toMicros(60);
+
+    private final Map<String, Histogram> histogramas = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> erros = new ConcurrentHashMap<>();
+
+    public void registra(String endpoint, long inicioNanos, boolean sucesso) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicioNanos);
+        histogramas.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(MAIOR_LATENCIA_MICROS, 3))
+                .recordValue(Math.min(micros, MAIOR_LATENCIA_MICROS));
+        if (!sucesso) {
+            erros.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+
+    public Map<String, Histogram> getHistogramas() {
+        return new TreeMap<>(histogramas);
+    }
+
+    public long getErros(String endpoint) {
+        LongAdder contador = erros.get(endpoint);
+        return contador != null ? contador.sum() : 0;
+    }
+
+    public long getTotalErros() {
+        return erros.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+}
@@ -0,0 +1,212 @@
+package com.ygorportes.usuario.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ygorportes.usuario.UsuarioApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Teste de carga do fluxo HTTP completo contra a aplicação embarcada com banco H2 em memória.
+// Cada estágio aumenta a concorrência; as latências p50/p99 de cada endpoint são comparadas com um
+// baseline medido na mesma máquina (no CI, o branch base rodado no mesmo job) e o processo termina com
+// erro se alguma regredir além da tolerância ou se não houver baseline para comparar. O p999 é só
+// reportado: em estágios de 10 s ele vem de poucas amostras e uma pausa de GC bastaria para falhar.
+public class LoadTestRunner {
+
+    private static final double[] PERCENTIS = {50.0, 99.0, 99.9};
+    private static final String[] NOMES_PERCENTIS = {"p50", "p99", "p999"};
+    private static final Set<String> PERCENTIS_COMPARADOS = Set.of("p50", "p99");
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> estagios = Arrays.stream(System.getProperty("loadtest.concurrency", "1,4,16,32").split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+        long duracaoEstagio = Long.getLong("loadtest.stage-seconds", 10);
+        long duracaoAquecimento = Long.getLong("loadtest.warmup-seconds", 5);
+        double tolerancia = Double.parseDouble(System.getProperty("loadtest.tolerance", "1.25"));
+        Path arquivoBaseline = Path.of(System.getProperty("loadtest.baseline", "build/loadtest/baseline.properties"));
+        boolean atualizaBaseline = Boolean.getBoolean("loadtest.update-baseline");
+
+        ConfigurableApplicationContext context = SpringApplication.run(UsuarioApplication.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+
+        Properties resultados = new Properties();
+        long totalErros;
+        try {
+            int porta = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + porta;
+
+            executaEstagio(baseUrl, Math.max(1, estagios.get(0)), duracaoAquecimento, new LatencyRecorder());
+
+            totalErros = 0;
+            for (int concorrencia : estagios) {
+                LatencyRecorder recorder = new LatencyRecorder();
+                executaEstagio(baseUrl, concorrencia, duracaoEstagio, recorder);
+                totalErros += recorder.getTotalErros();
+                reporta(concorrencia, recorder, resultados);
+            }
+        } finally {
+            context.close();
+        }
+
+        if (atualizaBaseline) {
+            if (arquivoBaseline.getParent() != null) {
+                Files.createDirectories(arquivoBaseline.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(arquivoBaseline)) {
+                resultados.store(writer, "Latencias em microssegundos (./gradlew loadTest -PupdateBaseline)");
+            }
+            System.out.println("Baseline atualizado em " + arquivoBaseline);
+            return;
+        }
+
+        Properties baseline = carregaBaseline(arquivoBaseline);
+        List<String> regressoes = comparaComBaseline(resultados, baseline, tolerancia);
+        regressoes.forEach(System.out::println);
+        if (totalErros > 0) {
+            System.out.println(totalErros + " requisições falharam durante o teste de carga");
+        }
+        // Um gate sem valores de referência nunca falharia
+        boolean semComparacao = resultados.stringPropertyNames().stream()
+                .filter(LoadTestRunner::comparada)
+                .noneMatch(baseline::containsKey);
+        if (semComparacao) {
+            System.out.println("Nenhuma latência comparada: baseline ausente ou sem chaves em comum em " + arquivoBaseline
+                    + " (gere com ./gradlew loadTest -PupdateBaseline na mesma máquina, antes da mudança)");
+        }
+        if (!regressoes.isEmpty() || totalErros > 0 || semComparacao) {
+            System.exit(1);
+        }
+    }
+
+    // Cada usuário virtual cadastra-se, faz login e repete a mistura de leituras e atualizações até o fim do estágio
+    private static void executaEstagio(String baseUrl, int concorrencia, long segundos, LatencyRecorder recorder)
+            throws InterruptedException {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ObjectMapper objectMapper = new ObjectMapper();
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        AtomicInteger sequencia = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concorrencia);
+        List<Future<?>> usuarios = new ArrayList<>();
+        for (int i = 0; i < concorrencia; i++) {
+            usuarios.add(executor.submit(() -> {
+                String email = "carga-" + System.nanoTime() + "-" + sequencia.incrementAndGet() + "@loadtest.local";
+                UsuarioClient client = new UsuarioClient(httpClient, objectMapper, baseUrl, recorder, email);
+                try {
+                    client.cadastra();
+                    client.login();
+                    while (System.nanoTime() < fim) {
+                        int sorteio = ThreadLocalRandom.current().nextInt(10);
+                        try {
+                            if (sorteio < 6) {
+                                client.busca();
+                            } else if (sorteio < 8) {
+                                client.atualizaEndereco(sequencia.incrementAndGet());
+                            } else {
+                                client.atualizaTelefone(sequencia.incrementAndGet());
+                            }
+                        } catch (IOException e) {
+                            // Já contabilizado como erro no recorder; o usuário virtual segue com a próxima chamada
+                        }
+                    }
+                } catch (IOException e) {
+                    // Falha no cadastro ou login: contabilizada no recorder e o usuário virtual é encerrado
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        for (Future<?> usuario : usuarios) {
+            try {
+                usuario.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Usuário virtual interrompido", e);
+            }
+        }
+    }
+
+    private static void reporta(int concorrencia, LatencyRecorder recorder, Properties resultados) {
+        System.out.printf("%n== concorrência %d ==%n", concorrencia);
+        System.out.printf("%-24s %10s %10s %10s %10s %8s%n", "endpoint", "requisições", "p50(us)", "p99(us)", "p999(us)", "erros");
+        for (Map.Entry<String, Histogram> entry : recorder.getHistogramas().entrySet()) {
+            Histogram histograma = entry.getValue();
+            long[] valores = new long[PERCENTIS.length];
+            for (int i = 0; i < PERCENTIS.length; i++) {
+                valores[i] = histograma.getValueAtPercentile(PERCENTIS[i]);
+                resultados.setProperty(chave(entry.getKey(), concorrencia, NOMES_PERCENTIS[i]), String.valueOf(valores[i]));
+            }
+            System.out.printf("%-24s %10d %10d %10d %10d %8d%n", entry.getKey(), histograma.getTotalCount(),
+                    valores[0], valores[1], valores[2], recorder.getErros(entry.getKey()));
+        }
+    }
+
+    private static List<String> comparaComBaseline(Properties resultados, Properties baseline, double tolerancia) {
+        List<String> regressoes = new ArrayList<>();
+        for (String chave : resultados.stringPropertyNames()) {
+            String valorBaseline = baseline.getProperty(chave);
+            if (valorBaseline == null) {
+                System.out.println("Sem baseline para " + chave + "; ignorado na comparação");
+                continue;
+            }
+            long atual = Long.parseLong(resultados.getProperty(chave));
+            long referencia = Long.parseLong(valorBaseline);
+            if (atual <= referencia * tolerancia) {
+                continue;
+            }
+            if (comparada(chave)) {
+                regressoes.add(String.format("REGRESSÃO %s: %d us (baseline %d us, tolerância %.2fx)",
+                        chave, atual, referencia, tolerancia));
+            } else {
+                System.out.printf("Aviso %s: %d us (baseline %d us, tolerância %.2fx); só reportado%n",
+                        chave, atual, referencia, tolerancia);
+            }
+        }
+        return regressoes;
+    }
+
+    private static Properties carregaBaseline(Path arquivo) throws IOException {
+        Properties baseline = new Properties();
+        if (Files.exists(arquivo)) {
+            try (Reader reader = Files.newBufferedReader(arquivo)) {
+                baseline.load(reader);
+            }
+        }
+        return baseline;
+    }
+
+    private static boolean comparada(String chave) {
+        return PERCENTIS_COMPARADOS.contains(chave.substring(chave.lastIndexOf('.') + 1));
+    }
+
+    // Ex.: GET_/usuario.c16.p99
+    private static String chave(String endpoint, int concorrencia, String percentil) {
+        return endpoint.replace(' ', '_') + ".c" + concorrencia + "." + percentil;
+    }
+}
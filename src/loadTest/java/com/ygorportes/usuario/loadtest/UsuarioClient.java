@@ -0,0 +1,112 @@
+package com.ygorportes.usuario.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Cliente HTTP de um usuário virtual: cadastro, login e chamadas autenticadas com o token Bearer
+public class UsuarioClient {
+
+    public static final String CADASTRO = "POST /usuario";
+    public static final String LOGIN = "POST /usuario/login";
+    public static final String BUSCA = "GET /usuario";
+    public static final String ATUALIZA_ENDERECO = "PUT /usuario/endereco";
+    public static final String ATUALIZA_TELEFONE = "PUT /usuario/telefone";
+
+    private static final String SENHA = "senha-carga";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final String email;
+
+    private String token;
+    private long idEndereco;
+    private long idTelefone;
+
+    public UsuarioClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl,
+                         LatencyRecorder recorder, String email) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.email = email;
+    }
+
+    // Cadastra o usuário com um endereço e um telefone e guarda os ids retornados
+    public void cadastra() throws IOException, InterruptedException {
+        Map<String, Object> usuario = Map.of(
+                "nome", "Usuario Carga",
+                "email", email,
+                "senha", SENHA,
+                "enderecos", List.of(Map.of("rua", "Rua Carga", "numero", "1", "cidade", "Cidade",
+                        "estado", "SP", "cep", "00000-000")),
+                "telefones", List.of(Map.of("numero", "999999999", "ddd", "11")));
+
+        HttpResponse<String> response = envia(CADASTRO, json("/usuario").POST(corpo(usuario)).build());
+        JsonNode corpo = objectMapper.readTree(response.body());
+        idEndereco = corpo.path("enderecos").path(0).path("id").asLong();
+        idTelefone = corpo.path("telefones").path(0).path("id").asLong();
+    }
+
+    public void login() throws IOException, InterruptedException {
+        HttpResponse<String> response = envia(LOGIN,
+                json("/usuario/login").POST(corpo(Map.of("email", email, "senha", SENHA))).build());
+        token = response.body();
+    }
+
+    public void busca() throws IOException, InterruptedException {
+        envia(BUSCA, autenticado("/usuario?email=" + URLEncoder.encode(email, StandardCharsets.UTF_8))
+                .GET().build());
+    }
+
+    public void atualizaEndereco(int sequencia) throws IOException, InterruptedException {
+        envia(ATUALIZA_ENDERECO, autenticado("/usuario/endereco?id=" + idEndereco)
+                .PUT(corpo(Map.of("numero", String.valueOf(sequencia)))).build());
+    }
+
+    public void atualizaTelefone(int sequencia) throws IOException, InterruptedException {
+        envia(ATUALIZA_TELEFONE, autenticado("/usuario/telefone?id=" + idTelefone)
+                .PUT(corpo(Map.of("numero", String.format("%09d", sequencia % 1_000_000_000)))).build());
+    }
+
+    private HttpResponse<String> envia(String endpoint, HttpRequest request) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.registra(endpoint, inicio, false);
+            throw e;
+        }
+        boolean sucesso = response.statusCode() / 100 == 2;
+        recorder.registra(endpoint, inicio, sucesso);
+        if (!sucesso) {
+            throw new IOException(endpoint + " retornou HTTP " + response.statusCode());
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder json(String caminho) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.Builder autenticado(String caminho) {
+        return json(caminho).header("Authorization", token);
+    }
+
+    private HttpRequest.BodyPublisher corpo(Object valor) throws IOException {
+        return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(valor));
+    }
+}
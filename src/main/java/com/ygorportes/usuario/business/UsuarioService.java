@@ -4,42 +4,67 @@ import com.ygorportes.usuario.business.converter.UsuarioConverter;
 import com.ygorportes.usuario.business.dto.EnderecoDTO;
 import com.ygorportes.usuario.business.dto.TelefoneDTO;
 import com.ygorportes.usuario.business.dto.UsuarioDTO;
+import com.ygorportes.usuario.infrastructure.cache.EmailBloomFilter;
+import com.ygorportes.usuario.infrastructure.datasource.LeituraPropriaContext;
 import com.ygorportes.usuario.infrastructure.entity.Endereco;
 import com.ygorportes.usuario.infrastructure.entity.Telefone;
 import com.ygorportes.usuario.infrastructure.entity.Usuario;
 import com.ygorportes.usuario.infrastructure.exceptions.ConflictException;
+import com.ygorportes.usuario.infrastructure.exceptions.PreconditionFailedException;
 import com.ygorportes.usuario.infrastructure.exceptions.ResourceNotFoundException;
 import com.ygorportes.usuario.infrastructure.repository.EnderecoRepository;
 import com.ygorportes.usuario.infrastructure.repository.TelefoneRepository;
 import com.ygorportes.usuario.infrastructure.repository.UsuarioRepository;
 import com.ygorportes.usuario.infrastructure.security.JwtUtil;
+import com.ygorportes.usuario.infrastructure.security.RevogacaoTokenService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class UsuarioService {
 
+    private static final int MAX_TENTATIVAS_ATUALIZACAO = 3;
+
     private final UsuarioRepository usuarioRepository;
     private final UsuarioConverter usuarioConverter;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final EnderecoRepository enderecoRepository;
     private final TelefoneRepository telefoneRepository;
+    private final EmailBloomFilter emailBloomFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final RevogacaoTokenService revogacaoTokenService;
 
+    @Transactional
     public UsuarioDTO salvaUsuario(UsuarioDTO usuarioDTO) {
+        LeituraPropriaContext.adicionaUsuario(usuarioDTO.getEmail());
         emailExite(usuarioDTO.getEmail());
         usuarioDTO.setSenha(passwordEncoder.encode(usuarioDTO.getSenha()));
         Usuario usuario = usuarioConverter.paraUsuario(usuarioDTO);
-        return usuarioConverter.paraUsuarioDTO(
-                usuarioRepository.save(usuario)
-        );
+        Usuario usuarioSalvo;
+        try {
+            usuarioSalvo = usuarioRepository.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            // Cadastro concorrente do mesmo e-mail, barrado pelo índice único (tenant_id, email)
+            throw new ConflictException("Email já cadastrado " + usuarioDTO.getEmail(), e);
+        }
+        emailBloomFilter.adiciona(usuarioSalvo.getEmail());
+        return usuarioConverter.paraUsuarioDTO(usuarioSalvo);
     }
 
+    // Consulta exata no banco, sem o filtro de Bloom: o filtro de outra instância pode ainda não conhecer o e-mail.
+    // Dentro da transação do cadastro a consulta vai ao primário
     public void emailExite(String email) {
         try {
-            boolean existe = verificaEmailExistente(email);
+            boolean existe = usuarioRepository.existsByEmail(email);
             if (existe) {
                 throw new ConflictException("Email já cadastrado" + email);
             }
@@ -48,11 +73,24 @@ public class UsuarioService {
         }
     }
 
+    // Verificação de disponibilidade (GET /usuario/email-disponivel), sem transação própria: negativos do filtro de
+    // Bloom retornam sem abrir transação nem consultar o banco; os possíveis positivos consultam o banco na
+    // transação read-only do existsByEmail (réplica, se houver). Não é usada no cadastro (ver emailExite)
     public boolean verificaEmailExistente(String email) {
-        return usuarioRepository.existsByEmail(email);
+        LeituraPropriaContext.adicionaUsuario(email);
+        if (!emailBloomFilter.podeExistir(email)) {
+            return false;
+        }
+        boolean existe = usuarioRepository.existsByEmail(email);
+        if (!existe) {
+            emailBloomFilter.registraFalsoPositivo();
+        }
+        return existe;
     }
 
+    @Transactional(readOnly = true)
     public UsuarioDTO buscaUsuarioPorEmail(String email) {
+        LeituraPropriaContext.adicionaUsuario(email);
         try {
             return usuarioConverter.paraUsuarioDTO(
                     usuarioRepository.findByEmail(email)
@@ -66,64 +104,130 @@ public class UsuarioService {
         }
     }
 
+    @Transactional
     public void deletaUsuarioPorEmail(String email) {
+        LeituraPropriaContext.adicionaUsuario(email);
         usuarioRepository.deleteByEmail(email);
+        revogacaoTokenService.revogaTokensDoUsuario(email);
+    }
+
+    // Revoga o token da requisição até a sua expiração
+    @Transactional
+    public void logout(String token) {
+        revogacaoTokenService.revogaToken(jwtUtil.extractClaims(token.substring(7)));
     }
 
-    public UsuarioDTO atualizaDadosUsuario(String token, UsuarioDTO usuarioDTO) {
+    // versaoEsperada vem do If-Match; quando nula, conflitos de versão são resolvidos relendo e mesclando de novo
+    public UsuarioDTO atualizaDadosUsuario(String token, UsuarioDTO usuarioDTO, Long versaoEsperada) {
         //Busca o email do usuário através do token (tira a obrigatoriedade do email)
         String email = jwtUtil.extrairEmailToken(token.substring(7));
 
         //Criptografia de senha
         usuarioDTO.setSenha(usuarioDTO.getSenha() != null ? passwordEncoder.encode(usuarioDTO.getSenha()) : null);
 
-        //Busca dos dados do usuário no banco de dados
-        Usuario usuarioEntity = usuarioRepository.findByEmail(email).orElseThrow(() ->
-                new ResourceNotFoundException("E-mail não localizado"));
+        return comRetentativa(versaoEsperada, () -> {
+            //Busca dos dados do usuário no banco de dados
+            Usuario usuarioEntity = usuarioRepository.findByEmail(email).orElseThrow(() ->
+                    new ResourceNotFoundException("E-mail não localizado"));
+            verificaVersao(versaoEsperada, usuarioEntity.getVersao());
 
-        //Mescla os dados recebidos na requisição DTO com os dados do banco de dados
-        Usuario usuario = usuarioConverter.updateUsuario(usuarioDTO, usuarioEntity);
+            //Mescla os dados recebidos na requisição DTO com os dados do banco de dados
+            Usuario usuario = usuarioConverter.updateUsuario(usuarioDTO, usuarioEntity);
 
-        //Salva os dados do usuário convertido e converte para usuarioDTO
-        return usuarioConverter.paraUsuarioDTO(usuarioRepository.save(usuario));
+            //Salva os dados do usuário convertido e converte para usuarioDTO
+            Usuario usuarioSalvo = usuarioRepository.saveAndFlush(usuario);
+            emailBloomFilter.adiciona(usuarioSalvo.getEmail());
+            //Com troca de e-mail, as leituras pelo e-mail novo também ficam no primário
+            LeituraPropriaContext.adicionaUsuario(usuarioSalvo.getEmail());
+
+            //Troca de senha ou de e-mail invalida os tokens já emitidos para o usuário
+            if (usuarioDTO.getSenha() != null || !email.equals(usuarioSalvo.getEmail())) {
+                revogacaoTokenService.revogaTokensDoUsuario(email);
+            }
+            return usuarioConverter.paraUsuarioDTO(usuarioSalvo);
+        });
     }
 
-    public EnderecoDTO atualizaEndereco(Long idEndereco, EnderecoDTO enderecoDTO) {
-        Endereco entity = enderecoRepository.findById(idEndereco).orElseThrow(() ->
-                new ResourceNotFoundException("ID não encontrado " + idEndereco));
+    public EnderecoDTO atualizaEndereco(Long idEndereco, EnderecoDTO enderecoDTO, Long versaoEsperada) {
+        return comRetentativa(versaoEsperada, () -> {
+            Endereco entity = enderecoRepository.findById(idEndereco).orElseThrow(() ->
+                    new ResourceNotFoundException("ID não encontrado " + idEndereco));
+            verificaVersao(versaoEsperada, entity.getVersao());
 
-        Endereco endereco = usuarioConverter.updateEndereco(enderecoDTO, entity);
+            Endereco endereco = usuarioConverter.updateEndereco(enderecoDTO, entity);
+            incrementaVersaoDoUsuario(entity.getUsuario_id());
 
-        return usuarioConverter.paraEnderecoDTO(enderecoRepository.save(endereco));
+            return usuarioConverter.paraEnderecoDTO(enderecoRepository.saveAndFlush(endereco));
+        });
     }
 
-    public TelefoneDTO atualizaTelefone(Long idTelefone, TelefoneDTO telefoneDTO) {
-        Telefone entity = telefoneRepository.findById(idTelefone).orElseThrow(() ->
-                new ResourceNotFoundException("ID não encontrado " + idTelefone));
+    public TelefoneDTO atualizaTelefone(Long idTelefone, TelefoneDTO telefoneDTO, Long versaoEsperada) {
+        return comRetentativa(versaoEsperada, () -> {
+            Telefone entity = telefoneRepository.findById(idTelefone).orElseThrow(() ->
+                    new ResourceNotFoundException("ID não encontrado " + idTelefone));
+            verificaVersao(versaoEsperada, entity.getVersao());
 
-        Telefone telefone = usuarioConverter.updateTelefone(telefoneDTO, entity);
+            Telefone telefone = usuarioConverter.updateTelefone(telefoneDTO, entity);
+            incrementaVersaoDoUsuario(entity.getUsuario_id());
 
-        return usuarioConverter.paraTelefoneDTO(telefoneRepository.save(telefone));
+            return usuarioConverter.paraTelefoneDTO(telefoneRepository.saveAndFlush(telefone));
+        });
+    }
+
+    // Endereços e telefones fazem parte da representação do usuário (e do seu ETag): alterar um deles muda a
+    // versão do usuário, senão o GET com If-None-Match responderia 304 com os dados antigos. Na inclusão, a
+    // alteração da coleção já incrementa a versão
+    private void incrementaVersaoDoUsuario(Long idUsuario) {
+        usuarioRepository.buscaIncrementandoVersao(idUsuario).orElseThrow(() ->
+                new ResourceNotFoundException("Usuário não encontrado " + idUsuario));
+    }
+
+    private void verificaVersao(Long versaoEsperada, Long versaoAtual) {
+        if (versaoEsperada != null && !versaoEsperada.equals(versaoAtual)) {
+            throw new PreconditionFailedException("Versão " + versaoEsperada + " desatualizada, versão atual " + versaoAtual);
+        }
+    }
+
+    // Executa a leitura-mescla-escrita em uma transação nova a cada tentativa, sem lock de linha.
+    // Com If-Match o conflito é do cliente (412); sem ele, o servidor repete até MAX_TENTATIVAS_ATUALIZACAO
+    private <T> T comRetentativa(Long versaoEsperada, Supplier<T> atualizacao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> atualizacao.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (versaoEsperada != null) {
+                    throw new PreconditionFailedException("Registro alterado por outra requisição", e);
+                }
+                if (tentativa >= MAX_TENTATIVAS_ATUALIZACAO) {
+                    throw new ConflictException("Registro alterado concorrentemente, tente novamente", e);
+                }
+            }
+        }
     }
 
+    @Transactional
     public EnderecoDTO cadastraEndereco(String token, EnderecoDTO enderecoDTO) {
         String email = jwtUtil.extrairEmailToken(token.substring(7));
         Usuario usuario = usuarioRepository.findByEmail(email).orElseThrow(() ->
                 new ResourceNotFoundException("E-mail não localizado " + email));
 
-        Endereco endereco = usuarioConverter.paraEnderecoEntity(enderecoDTO, usuario.getId());
-        Endereco enderecoEntity = enderecoRepository.save(endereco);
-        return usuarioConverter.paraEnderecoDTO(enderecoEntity);
+        // Incluído pela coleção do usuário (gerenciado), que grava o usuario_id no INSERT; o flush gera o id
+        Endereco endereco = usuarioConverter.paraEndereco(enderecoDTO);
+        usuario.getEnderecos().add(endereco);
+        usuarioRepository.flush();
+        return usuarioConverter.paraEnderecoDTO(endereco);
     }
 
+    @Transactional
     public TelefoneDTO cadastraTelefone(String token, TelefoneDTO telefoneDTO) {
         String email = jwtUtil.extrairEmailToken(token.substring(7));
         Usuario usuario = usuarioRepository.findByEmail(email).orElseThrow(() ->
                 new ResourceNotFoundException("E-mail não localizado " + email));
 
-        Telefone telefone = usuarioConverter.paraTelefoneEntity(telefoneDTO, usuario.getId());
-        return usuarioConverter.paraTelefoneDTO(
-                telefoneRepository.save(telefone)
-        );
+        // Incluído pela coleção do usuário (gerenciado), que grava o usuario_id no INSERT; o flush gera o id
+        Telefone telefone = usuarioConverter.paraTelefone(telefoneDTO);
+        usuario.getTelefones().add(telefone);
+        usuarioRepository.flush();
+        return usuarioConverter.paraTelefoneDTO(telefone);
     }
 }
@@ -61,6 +61,7 @@ public class UsuarioConverter {
                 .senha(usuario.getSenha())
                 .enderecos(paraListaEnderecosDTO(usuario.getEnderecos()))
                 .telefones(paraListaTelefoneDTO(usuario.getTelefones()))
+                .versao(usuario.getVersao())
                 .build();
     }
 
@@ -81,6 +82,7 @@ public class UsuarioConverter {
                 .cidade(endereco.getCidade())
                 .estado(endereco.getEstado())
                 .cep(endereco.getCep())
+                .versao(endereco.getVersao())
                 .build();
     }
 
@@ -93,6 +95,7 @@ public class UsuarioConverter {
                 .id(telefone.getId())
                 .numero(telefone.getNumero())
                 .ddd(telefone.getDdd())
+                .versao(telefone.getVersao())
                 .build();
     }
 
@@ -104,6 +107,8 @@ public class UsuarioConverter {
                 .senha(usuarioDTO.getSenha() != null ? usuarioDTO.getSenha() : usuario.getSenha())
                 .enderecos(usuario.getEnderecos())
                 .telefones(usuario.getTelefones())
+                .versao(usuario.getVersao())
+                .tenantId(usuario.getTenantId())
                 .build();
     }
 
@@ -116,6 +121,9 @@ public class UsuarioConverter {
                 .cidade(enderecoDTO.getCidade() != null ? enderecoDTO.getCidade() : endereco.getCidade())
                 .estado(enderecoDTO.getEstado() != null ? enderecoDTO.getEstado() : endereco.getEstado())
                 .cep(enderecoDTO.getCep() != null ? enderecoDTO.getCep() : endereco.getCep())
+                .usuario_id(endereco.getUsuario_id())
+                .versao(endereco.getVersao())
+                .tenantId(endereco.getTenantId())
                 .build();
     }
 
@@ -124,26 +132,9 @@ public class UsuarioConverter {
                 .id(telefone.getId())
                 .numero(telefoneDTO.getNumero() != null ? telefoneDTO.getNumero() : telefone.getNumero())
                 .ddd(telefoneDTO.getDdd() != null ? telefoneDTO.getDdd() : telefone.getDdd())
-                .build();
-    }
-
-    public Endereco paraEnderecoEntity(EnderecoDTO enderecoDTO, Long idUsuario) {
-        return Endereco.builder()
-                .rua(enderecoDTO.getRua())
-                .numero(enderecoDTO.getNumero())
-                .complemento(enderecoDTO.getComplemento())
-                .cidade(enderecoDTO.getCidade())
-                .estado(enderecoDTO.getEstado())
-                .cep(enderecoDTO.getCep())
-                .usuario_id(idUsuario)
-                .build();
-    }
-
-    public Telefone paraTelefoneEntity(TelefoneDTO telefoneDTO, Long idUsuario) {
-        return Telefone.builder()
-                .numero(telefoneDTO.getNumero())
-                .ddd(telefoneDTO.getDdd())
-                .usuario_id(idUsuario)
+                .usuario_id(telefone.getUsuario_id())
+                .versao(telefone.getVersao())
+                .tenantId(telefone.getTenantId())
                 .build();
     }
 }
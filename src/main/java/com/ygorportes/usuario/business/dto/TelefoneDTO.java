@@ -12,4 +12,5 @@ public class TelefoneDTO {
     private Long id;
     private String numero;
     private String ddd;
+    private Long versao;
 }
@@ -16,4 +16,5 @@ public class UsuarioDTO {
     private String senha;
     private List<EnderecoDTO> enderecos;
     private List<TelefoneDTO> telefones;
+    private Long versao;
 }
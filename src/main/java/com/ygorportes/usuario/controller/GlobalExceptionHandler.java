@@ -0,0 +1,38 @@
+package com.ygorportes.usuario.controller;
+
+import com.ygorportes.usuario.infrastructure.exceptions.BadRequestException;
+import com.ygorportes.usuario.infrastructure.exceptions.ConflictException;
+import com.ygorportes.usuario.infrastructure.exceptions.PreconditionFailedException;
+import com.ygorportes.usuario.infrastructure.exceptions.ResourceNotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Versão informada no If-Match não corresponde mais à do registro
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<String> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    // E-mail já cadastrado ou atualização sem If-Match que esgotou as retentativas
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<String> handleConflictException(ConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    // Registro inexistente no tenant corrente: ids e e-mails de outros tenants também não são encontrados
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<String> handleResourceNotFoundException(ResourceNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    // Cabeçalho fora do formato esperado (ex.: If-Match que não é um ETag)
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<String> handleBadRequestException(BadRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
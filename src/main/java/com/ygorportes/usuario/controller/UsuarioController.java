@@ -6,7 +6,10 @@ import com.ygorportes.usuario.business.dto.TelefoneDTO;
 import com.ygorportes.usuario.business.dto.UsuarioDTO;
 import com.ygorportes.usuario.infrastructure.entity.Endereco;
 import com.ygorportes.usuario.infrastructure.entity.Usuario;
+import com.ygorportes.usuario.infrastructure.exceptions.BadRequestException;
+import com.ygorportes.usuario.infrastructure.exceptions.PreconditionFailedException;
 import com.ygorportes.usuario.infrastructure.security.JwtUtil;
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,12 +37,25 @@ public class UsuarioController {
                 new UsernamePasswordAuthenticationToken(usuarioDTO.getEmail(),
                         usuarioDTO.getSenha())
         );
-        return "Bearer " + jwtUtil.generateToken(auth.getName());
+        return "Bearer " + jwtUtil.generateToken(auth.getName(), TenantContext.getTenant());
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String token) {
+        usuarioService.logout(token);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/email-disponivel")
+    public ResponseEntity<Boolean> emailDisponivel(@RequestParam("email") String email) {
+        return ResponseEntity.ok(!usuarioService.verificaEmailExistente(email));
+    }
+
+    // ETag = versão do usuário, que também muda com os seus endereços e telefones (If-None-Match responde 304)
     @GetMapping
     public ResponseEntity<UsuarioDTO> buscaUsuarioPorEmail(@RequestParam("email") String email) {
-        return ResponseEntity.ok(usuarioService.buscaUsuarioPorEmail(email));
+        UsuarioDTO usuarioDTO = usuarioService.buscaUsuarioPorEmail(email);
+        return ResponseEntity.ok().eTag(String.valueOf(usuarioDTO.getVersao())).body(usuarioDTO);
     }
 
     @DeleteMapping("/{email}")
@@ -48,22 +64,29 @@ public class UsuarioController {
         return ResponseEntity.ok().build();
     }
 
+    // If-Match opcional: com a versão (ETag) informada, a atualização só ocorre se o registro não mudou (senão 412)
     @PutMapping
     public ResponseEntity<UsuarioDTO> atualizaDadoUsuario(@RequestBody UsuarioDTO usuarioDTO,
-                                                          @RequestHeader("Authorization") String token) {
-        return ResponseEntity.ok(usuarioService.atualizaDadosUsuario(token, usuarioDTO));
+                                                          @RequestHeader("Authorization") String token,
+                                                          @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        UsuarioDTO atualizado = usuarioService.atualizaDadosUsuario(token, usuarioDTO, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(atualizado.getVersao())).body(atualizado);
     }
 
     @PutMapping("/endereco")
     public ResponseEntity<EnderecoDTO> atualizaEndereco(@RequestBody EnderecoDTO enderecoDTO,
-                                                        @RequestParam("id") Long id){
-        return ResponseEntity.ok(usuarioService.atualizaEndereco(id, enderecoDTO));
+                                                        @RequestParam("id") Long id,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch){
+        EnderecoDTO atualizado = usuarioService.atualizaEndereco(id, enderecoDTO, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(atualizado.getVersao())).body(atualizado);
     }
 
     @PutMapping("/telefone")
     public ResponseEntity<TelefoneDTO> atualizaTelefone(@RequestBody TelefoneDTO telefoneDTO,
-                                                        @RequestParam("id") Long id){
-        return ResponseEntity.ok(usuarioService.atualizaTelefone(id, telefoneDTO));
+                                                        @RequestParam("id") Long id,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch){
+        TelefoneDTO atualizado = usuarioService.atualizaTelefone(id, telefoneDTO, versaoDoIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(String.valueOf(atualizado.getVersao())).body(atualizado);
     }
 
     @PostMapping("/endereco")
@@ -77,4 +100,27 @@ public class UsuarioController {
                                                         @RequestHeader("Authorization") String token){
         return ResponseEntity.ok(usuarioService.cadastraTelefone(token, telefoneDTO));
     }
+
+    // Converte o ETag do If-Match ("3") na versão esperada; ausente ou "*" significa sem pré-condição.
+    // O If-Match usa comparação forte, que um ETag fraco (W/"3") nunca satisfaz (412); fora do formato é 400
+    static Long versaoDoIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.equals("*")) {
+            return null;
+        }
+        if (valor.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match exige ETag forte: " + ifMatch);
+        }
+        if (valor.length() < 3 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new BadRequestException("If-Match inválido: " + ifMatch);
+        }
+        try {
+            return Long.valueOf(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("If-Match inválido: " + ifMatch, e);
+        }
+    }
 }
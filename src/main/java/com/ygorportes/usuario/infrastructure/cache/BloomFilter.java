@@ -0,0 +1,86 @@
+package com.ygorportes.usuario.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Filtro de Bloom com bits em AtomicLongArray: inserções concorrentes sem lock e consultas sem alocação
+class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+    private final LongAdder elementos = new LongAdder();
+
+    BloomFilter(long elementosEsperados, double taxaFalsoPositivo, long maximoBits) {
+        long n = Math.max(1, elementosEsperados);
+        long otimo = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        // Arredonda para múltiplo de 64 e limita ao teto de memória configurado
+        this.numeroBits = Math.max(64, (Math.min(otimo, maximoBits) + 63) / 64 * 64);
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray(Math.toIntExact(numeroBits / 64));
+    }
+
+    void adiciona(String valor) {
+        long hash1 = hash(valor);
+        long hash2 = mistura(hash1);
+        for (int i = 0; i < numeroHashes; i++) {
+            long indice = Math.floorMod(hash1 + i * hash2, numeroBits);
+            int palavra = (int) (indice >>> 6);
+            long mascara = 1L << indice;
+            long atual;
+            while (((atual = bits.get(palavra)) & mascara) == 0) {
+                if (bits.compareAndSet(palavra, atual, atual | mascara)) {
+                    break;
+                }
+            }
+        }
+        elementos.increment();
+    }
+
+    boolean podeConter(String valor) {
+        long hash1 = hash(valor);
+        long hash2 = mistura(hash1);
+        for (int i = 0; i < numeroHashes; i++) {
+            long indice = Math.floorMod(hash1 + i * hash2, numeroBits);
+            if ((bits.get((int) (indice >>> 6)) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long getNumeroBits() {
+        return numeroBits;
+    }
+
+    long getElementos() {
+        return elementos.sum();
+    }
+
+    // Taxa de falso positivo esperada para a quantidade de elementos já inserida
+    double taxaFalsoPositivoEstimada() {
+        double expoente = -numeroHashes * (double) getElementos() / numeroBits;
+        return Math.pow(1 - Math.exp(expoente), numeroHashes);
+    }
+
+    // FNV-1a de 64 bits sobre os bytes UTF-8
+    private static long hash(String valor) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do MurmurHash3, usado como segundo hash independente (sempre ímpar)
+    private static long mistura(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash | 1;
+    }
+}
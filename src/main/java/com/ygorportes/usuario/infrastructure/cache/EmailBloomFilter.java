@@ -0,0 +1,231 @@
+package com.ygorportes.usuario.infrastructure.cache;
+
+import com.ygorportes.usuario.infrastructure.repository.EmailCadastrado;
+import com.ygorportes.usuario.infrastructure.repository.UsuarioRepository;
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
+import com.ygorportes.usuario.infrastructure.tenant.TenantProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Filtro de Bloom dos e-mails cadastrados: respostas negativas dispensam a consulta ao banco. Usado apenas na
+// verificação de disponibilidade; o cadastro consulta o banco, que garante a unicidade (tenant_id, email).
+// Reconstruído periodicamente a partir do banco (descarta e-mails removidos), atualizado a cada cadastro local
+// e sincronizado em intervalos curtos com os cadastros das demais instâncias (linhas com id acima do último lido).
+// Trocas de e-mail feitas em outra instância só chegam na reconstrução.
+// Cada tenant tem sua própria partição, com teto de memória e métricas próprios.
+@Component
+public class EmailBloomFilter {
+
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double taxaFalsoPositivo;
+    private final long elementosEsperadosMinimo;
+
+    private final Map<String, Particao> particoes = new ConcurrentHashMap<>();
+
+    public EmailBloomFilter(UsuarioRepository usuarioRepository,
+                            TransactionTemplate transactionTemplate,
+                            TenantProperties tenantProperties,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.email-bloom-filter.false-positive-rate:0.01}") double taxaFalsoPositivo,
+                            @Value("${app.email-bloom-filter.expected-insertions:100000}") long elementosEsperadosMinimo,
+                            @Value("${app.email-bloom-filter.max-bits:67108864}") long maximoBits) {
+        this.usuarioRepository = usuarioRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        this.elementosEsperadosMinimo = elementosEsperadosMinimo;
+
+        for (String tenant : tenantProperties.ids()) {
+            Long maximoBitsTenant = tenantProperties.getTenant(tenant).getEmailBloomFilterMaxBits();
+            particoes.put(tenant, new Particao(tenant, maximoBitsTenant != null ? maximoBitsTenant : maximoBits,
+                    meterRegistry));
+        }
+    }
+
+    // Retorna false somente quando o e-mail certamente não está cadastrado no tenant corrente
+    public boolean podeExistir(String email) {
+        Particao particao = particoes.get(TenantContext.getTenant());
+        BloomFilter filtro = particao != null ? particao.atual : null;
+        if (filtro == null) {
+            return true;
+        }
+        if (filtro.podeConter(normaliza(email))) {
+            particao.possiveisPositivos.increment();
+            return true;
+        }
+        particao.negativos.increment();
+        return false;
+    }
+
+    public void registraFalsoPositivo() {
+        Particao particao = particoes.get(TenantContext.getTenant());
+        if (particao != null) {
+            particao.falsosPositivos.increment();
+        }
+    }
+
+    // Dentro de uma transação a inclusão acontece após o commit, quando a reconstrução já enxerga a linha
+    public void adiciona(String email) {
+        Particao particao = particoes.get(TenantContext.getTenant());
+        if (particao == null) {
+            return;
+        }
+        String normalizado = normaliza(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    particao.adiciona(normalizado);
+                }
+            });
+        } else {
+            particao.adiciona(normalizado);
+        }
+    }
+
+    // Executa na inicialização e depois a cada intervalo configurado, uma transação por tenant.
+    // Transações read-write de propósito: leem do primário, pois a réplica pode não ter os cadastros mais recentes
+    @Scheduled(fixedDelayString = "${app.email-bloom-filter.rebuild-interval:PT30M}")
+    public void reconstroi() {
+        for (Particao particao : particoes.values()) {
+            TenantContext.setTenant(particao.tenant);
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconstroi(particao));
+            } finally {
+                TenantContext.limpa();
+            }
+        }
+    }
+
+    private void reconstroi(Particao particao) {
+        // Lido antes da carga: cadastros que entrarem durante ela são trazidos pela sincronização
+        long maiorId = usuarioRepository.buscaMaiorId();
+        // Folga de 20% para os cadastros até a próxima reconstrução
+        long esperados = Math.max(elementosEsperadosMinimo, usuarioRepository.count() * 6 / 5);
+        BloomFilter novo = new BloomFilter(esperados, taxaFalsoPositivo, particao.maximoBits);
+        particao.emConstrucao = novo;
+        try (Stream<String> emails = usuarioRepository.buscaTodosEmails()) {
+            emails.forEach(email -> novo.adiciona(normaliza(email)));
+            particao.atual = novo;
+        } finally {
+            particao.emConstrucao = null;
+        }
+        particao.iniciaSincronizacao(maiorId);
+    }
+
+    // Traz os cadastros feitos por outras instâncias desde a última sincronização, uma transação por tenant.
+    // Lê do primário pelo mesmo motivo da reconstrução; a consulta usa a PK e costuma trazer poucas linhas
+    @Scheduled(fixedDelayString = "${app.email-bloom-filter.sync-interval:PT5S}")
+    public void sincroniza() {
+        for (Particao particao : particoes.values()) {
+            if (particao.idSincronizado < 0) {
+                continue;
+            }
+            TenantContext.setTenant(particao.tenant);
+            try {
+                transactionTemplate.executeWithoutResult(status -> sincroniza(particao));
+            } finally {
+                TenantContext.limpa();
+            }
+        }
+    }
+
+    private void sincroniza(Particao particao) {
+        long maiorId = particao.maiorIdLido;
+        try (Stream<EmailCadastrado> cadastros = usuarioRepository.buscaEmailsAposId(particao.idSincronizado)) {
+            Iterator<EmailCadastrado> iterator = cadastros.iterator();
+            while (iterator.hasNext()) {
+                EmailCadastrado cadastro = iterator.next();
+                particao.adiciona(normaliza(cadastro.email()));
+                maiorId = Math.max(maiorId, cadastro.id());
+            }
+        }
+        // O id é gerado no INSERT e o commit pode vir fora de ordem: a próxima leitura parte do maior id do
+        // ciclo anterior, relendo as linhas de um intervalo para não perder cadastros com id menor confirmados
+        // depois. Transações de cadastro mais longas que o intervalo só entram na reconstrução
+        particao.idSincronizado = particao.maiorIdLido;
+        particao.maiorIdLido = maiorId;
+    }
+
+    private static String normaliza(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Particao {
+
+        private final String tenant;
+        private final long maximoBits;
+
+        private final Counter negativos;
+        private final Counter possiveisPositivos;
+        private final Counter falsosPositivos;
+
+        // Nulo até a primeira reconstrução; enquanto isso todas as consultas seguem para o banco
+        private volatile BloomFilter atual;
+        // Filtro em reconstrução, que também recebe os cadastros feitos durante a carga
+        private volatile BloomFilter emConstrucao;
+        // Cursor da sincronização entre instâncias; negativo até a primeira reconstrução
+        private volatile long idSincronizado = -1;
+        private volatile long maiorIdLido = -1;
+
+        private Particao(String tenant, long maximoBits, MeterRegistry meterRegistry) {
+            this.tenant = tenant;
+            this.maximoBits = maximoBits;
+
+            this.negativos = Counter.builder("usuario.email.bloom.consultas")
+                    .description("Consultas de e-mail respondidas pelo filtro sem acessar o banco")
+                    .tag("tenant", tenant)
+                    .tag("resultado", "negativo")
+                    .register(meterRegistry);
+            this.possiveisPositivos = Counter.builder("usuario.email.bloom.consultas")
+                    .description("Consultas de e-mail encaminhadas ao banco")
+                    .tag("tenant", tenant)
+                    .tag("resultado", "possivel_positivo")
+                    .register(meterRegistry);
+            this.falsosPositivos = Counter.builder("usuario.email.bloom.falsos.positivos")
+                    .description("Possíveis positivos que o banco confirmou como inexistentes")
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+            Gauge.builder("usuario.email.bloom.bits", this, p -> p.atual != null ? p.atual.getNumeroBits() : 0)
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+            Gauge.builder("usuario.email.bloom.taxa.falso.positivo.estimada", this,
+                            p -> p.atual != null ? p.atual.taxaFalsoPositivoEstimada() : 0)
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+        }
+
+        // Só a primeira reconstrução define o cursor; depois ele avança apenas pela sincronização
+        private void iniciaSincronizacao(long maiorId) {
+            if (idSincronizado < 0) {
+                maiorIdLido = maiorId;
+                idSincronizado = maiorId;
+            }
+        }
+
+        // Lê o filtro em construção antes do atual para não perder inclusões durante a troca
+        private void adiciona(String normalizado) {
+            BloomFilter novo = emConstrucao;
+            if (novo != null) {
+                novo.adiciona(normalizado);
+            }
+            BloomFilter filtro = atual;
+            if (filtro != null && filtro != novo) {
+                filtro.adiciona(normalizado);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ygorportes.usuario.infrastructure.datasource;
+
+import com.ygorportes.usuario.infrastructure.tenant.TenantProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Um pool Hikari por tenant (spring.datasource.* com o limite de app.tenants.<id>.max-pool-size) e, quando
+// uma réplica de leitura é configurada (app.datasource.replica.jdbc-url), também um pool de réplica por tenant
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    public TenantRoutingDataSource tenantRoutingDataSource(DataSourceProperties properties,
+                                                           TenantProperties tenantProperties,
+                                                           Environment environment,
+                                                           ObjectProvider<MeterRegistry> meterRegistry,
+                                                           @Value("${app.datasource.read-your-writes-window:2s}") Duration janelaLeituraPropria,
+                                                           @Value("${app.datasource.read-your-writes-max-tracked:10000}") int maximoEscritasRastreadas) {
+        Binder binder = Binder.get(environment);
+        boolean possuiReplica = environment.containsProperty("app.datasource.replica.jdbc-url");
+
+        Map<Object, Object> dataSourcesPorTenant = new HashMap<>();
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String tenant : tenantProperties.ids()) {
+            TenantProperties.Tenant configuracao = tenantProperties.getTenant(tenant);
+            Integer maxPoolSize = configuracao.getMaxPoolSize();
+
+            // Pool do primário, configurado pelas propriedades spring.datasource.*
+            HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+            configuraPool(primario, "primary-" + tenant, maxPoolSize, meterRegistry);
+            pools.add(primario);
+
+            if (!possuiReplica) {
+                dataSourcesPorTenant.put(tenant, primario);
+                continue;
+            }
+
+            // Pool da réplica, configurado pelas propriedades app.datasource.replica.*
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind("app.datasource.replica", Bindable.ofInstance(replica));
+            replica.setReadOnly(true);
+            configuraPool(replica, "replica-" + tenant, maxPoolSize, meterRegistry);
+            pools.add(replica);
+
+            ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(primario, replica,
+                    janelaLeituraPropria, configuracao.getReadYourWritesMaxTracked() != null
+                            ? configuracao.getReadYourWritesMaxTracked() : maximoEscritasRastreadas);
+            routingDataSource.afterPropertiesSet();
+            dataSourcesPorTenant.put(tenant, routingDataSource);
+        }
+        return new TenantRoutingDataSource(dataSourcesPorTenant, pools);
+    }
+
+    // DataSource usado pelo JPA: o proxy lazy adia a conexão até o tenant e o flag read-only da transação estarem definidos
+    @Bean
+    @Primary
+    public DataSource dataSource(TenantRoutingDataSource tenantRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(tenantRoutingDataSource);
+    }
+
+    // Métricas hikaricp.* por pool (tag pool=primary-<tenant>/replica-<tenant>)
+    private void configuraPool(HikariDataSource dataSource, String nome, Integer maxPoolSize,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        dataSource.setPoolName(nome);
+        if (maxPoolSize != null) {
+            dataSource.setMaximumPoolSize(maxPoolSize);
+        }
+        meterRegistry.ifAvailable(registry ->
+                dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
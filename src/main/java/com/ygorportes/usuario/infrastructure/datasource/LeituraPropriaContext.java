@@ -0,0 +1,29 @@
+package com.ygorportes.usuario.infrastructure.datasource;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Guarda os e-mails dos usuários cujos dados a requisição corrente lê ou escreve (titular do token, login,
+// cadastro, usuário consultado). Escritas são registradas para esses usuários e leituras de qualquer um deles
+// dentro da janela de leitura própria vão para o primário; sem usuário definido a leitura vai para a réplica.
+public final class LeituraPropriaContext {
+
+    private static final ThreadLocal<Set<String>> USUARIOS = ThreadLocal.withInitial(LinkedHashSet::new);
+
+    private LeituraPropriaContext() {
+    }
+
+    public static void adicionaUsuario(String email) {
+        if (email != null) {
+            USUARIOS.get().add(email);
+        }
+    }
+
+    public static Set<String> getUsuarios() {
+        return Set.copyOf(USUARIOS.get());
+    }
+
+    public static void limpa() {
+        USUARIOS.remove();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ygorportes.usuario.infrastructure.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Roteia transações read-only para a réplica e todo o resto para o primário. Há uma instância por tenant,
+// então as escritas rastreadas e o seu limite também são do tenant.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private final long janelaLeituraPropriaMillis;
+    private final int limiteEscritasRastreadas;
+
+    // Último commit de escrita por usuário (e-mail), para manter a leitura das próprias escritas no primário
+    private final Map<String, Long> ultimasEscritas = new ConcurrentHashMap<>();
+    // Com o limite estourado, todas as leituras do tenant ficam no primário até este instante
+    private volatile long primarioAte;
+
+    public ReadReplicaRoutingDataSource(DataSource primario, DataSource replica, Duration janelaLeituraPropria,
+                                        int limiteEscritasRastreadas) {
+        this.janelaLeituraPropriaMillis = janelaLeituraPropria.toMillis();
+        this.limiteEscritasRastreadas = limiteEscritasRastreadas;
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+    }
+
+    // Chamado na obtenção efetiva da conexão (adiada pelo LazyConnectionDataSourceProxy)
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Fora de transação (ex.: atualização de schema na inicialização) sempre usa o primário
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Destino.PRIMARIO;
+        }
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registraEscritaAposCommit();
+            return Destino.PRIMARIO;
+        }
+
+        Set<String> usuarios = LeituraPropriaContext.getUsuarios();
+        if (!usuarios.isEmpty() && System.currentTimeMillis() < primarioAte) {
+            return Destino.PRIMARIO;
+        }
+        for (String email : usuarios) {
+            if (dentroDaJanela(email)) {
+                return Destino.PRIMARIO;
+            }
+        }
+        return Destino.REPLICA;
+    }
+
+    // Os usuários afetados são lidos no commit, pois a transação pode descobri-los depois de obter a conexão
+    // (ex.: troca de e-mail)
+    private void registraEscritaAposCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Set<String> usuarios = LeituraPropriaContext.getUsuarios();
+                if (usuarios.isEmpty()) {
+                    return;
+                }
+                long agora = System.currentTimeMillis();
+                usuarios.forEach(email -> ultimasEscritas.put(email, agora));
+                if (ultimasEscritas.size() > limiteEscritasRastreadas) {
+                    descartaEscritas(agora);
+                }
+            }
+        });
+    }
+
+    // Descarta as escritas fora da janela; se ainda houver escritas demais dentro dela, deixa de rastreá-las
+    // e manda as leituras do tenant para o primário até a janela passar: memória limitada sem perder a leitura
+    // das próprias escritas, com a carga extra restrita ao tenant que a gerou
+    private void descartaEscritas(long agora) {
+        ultimasEscritas.values().removeIf(instante -> agora - instante > janelaLeituraPropriaMillis);
+        if (ultimasEscritas.size() > limiteEscritasRastreadas) {
+            primarioAte = agora + janelaLeituraPropriaMillis;
+            ultimasEscritas.clear();
+            // Cobre também as escritas registradas por outras threads durante a limpeza
+            primarioAte = System.currentTimeMillis() + janelaLeituraPropriaMillis;
+        }
+    }
+
+    private boolean dentroDaJanela(String email) {
+        Long ultimaEscrita = ultimasEscritas.get(email);
+        if (ultimaEscrita == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - ultimaEscrita > janelaLeituraPropriaMillis) {
+            ultimasEscritas.remove(email, ultimaEscrita);
+            return false;
+        }
+        return true;
+    }
+}
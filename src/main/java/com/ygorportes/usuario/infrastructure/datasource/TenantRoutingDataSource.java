@@ -0,0 +1,33 @@
+package com.ygorportes.usuario.infrastructure.datasource;
+
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+// Roteia cada conexão para o pool do tenant corrente; cada pool tem seu próprio limite de conexões,
+// então um tenant com muito tráfego espera pelo próprio pool sem esgotar as conexões dos demais
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<HikariDataSource> pools;
+
+    public TenantRoutingDataSource(Map<Object, Object> dataSourcesPorTenant, List<HikariDataSource> pools) {
+        this.pools = pools;
+        setTargetDataSources(dataSourcesPorTenant);
+        setDefaultTargetDataSource((DataSource) dataSourcesPorTenant.get(TenantContext.TENANT_PADRAO));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.getTenant();
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
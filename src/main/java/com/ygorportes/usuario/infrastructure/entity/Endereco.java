@@ -2,13 +2,14 @@ package com.ygorportes.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "endereco")
+@Table(name = "endereco", indexes = @Index(name = "idx_endereco_usuario_id", columnList = "usuario_id"))
 @Builder
 public class Endereco {
 
@@ -34,7 +35,16 @@ public class Endereco {
     @Column(name = "cep", length = 9)
     private String cep;
 
-    @Column(name = "usuario_id")
+    // Gravado pela coleção Usuario.enderecos; aqui apenas leitura
+    @Column(name = "usuario_id", insertable = false, updatable = false)
     private Long usuario_id;
 
+    @Version
+    @Column(name = "versao")
+    private Long versao;
+
+    @TenantId
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
 }
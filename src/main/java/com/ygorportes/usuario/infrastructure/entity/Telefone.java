@@ -2,13 +2,14 @@ package com.ygorportes.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "telefone")
+@Table(name = "telefone", indexes = @Index(name = "idx_telefone_usuario_id", columnList = "usuario_id"))
 @Builder
 public class Telefone {
 
@@ -22,6 +23,15 @@ public class Telefone {
     @Column(name = "ddd", length = 3)
     private String ddd;
 
-    @Column(name = "usuario_id")
+    // Gravado pela coleção Usuario.telefones; aqui apenas leitura
+    @Column(name = "usuario_id", insertable = false, updatable = false)
     private Long usuario_id;
+
+    @Version
+    @Column(name = "versao")
+    private Long versao;
+
+    @TenantId
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
 }
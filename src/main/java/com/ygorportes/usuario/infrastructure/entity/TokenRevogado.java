@@ -0,0 +1,26 @@
+package com.ygorportes.usuario.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "token_revogado")
+@Builder
+public class TokenRevogado {
+
+    @Id
+    @Column(name = "chave", length = 150)
+    private String chave;
+
+    @Column(name = "revogado_em", nullable = false)
+    private Instant revogadoEm;
+
+    @Column(name = "expira_em", nullable = false)
+    private Instant expiraEm;
+}
@@ -2,6 +2,7 @@ package com.ygorportes.usuario.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.TenantId;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -13,7 +14,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "usuario")
+@Table(name = "usuario", indexes = @Index(name = "uk_usuario_tenant_email", columnList = "tenant_id, email", unique = true))
 @Builder
 public class Usuario implements UserDetails {
 
@@ -30,12 +31,22 @@ public class Usuario implements UserDetails {
     @Column(name = "senha")
     private String senha;
 
+    @Version
+    @Column(name = "versao")
+    private Long versao;
+
+    @TenantId
+    @Column(name = "tenant_id", length = 50)
+    private String tenantId;
+
+    // Chave não nula: o Hibernate grava o usuario_id já no INSERT de endereco/telefone (exigido pela PK
+    // (id, usuario_id) do layout particionado), sem inserir nulo e atualizar depois
     @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "usuario_id", referencedColumnName = "id")
+    @JoinColumn(name = "usuario_id", referencedColumnName = "id", nullable = false)
     private List<Endereco> enderecos;
 
     @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "usuario_id", referencedColumnName = "id")
+    @JoinColumn(name = "usuario_id", referencedColumnName = "id", nullable = false)
     private List<Telefone> telefones;
 
     @Override
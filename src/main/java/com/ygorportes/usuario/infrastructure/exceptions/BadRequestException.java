@@ -0,0 +1,12 @@
+package com.ygorportes.usuario.infrastructure.exceptions;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+
+    public BadRequestException(String message, Throwable throwable) {
+        super(message, throwable);
+    }
+}
@@ -0,0 +1,12 @@
+package com.ygorportes.usuario.infrastructure.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String message, Throwable throwable) {
+        super(message, throwable);
+    }
+}
@@ -0,0 +1,5 @@
+package com.ygorportes.usuario.infrastructure.repository;
+
+// Projeção (id, e-mail) usada na sincronização do filtro de Bloom, sem carregar a entidade Usuario
+public record EmailCadastrado(Long id, String email) {
+}
@@ -0,0 +1,31 @@
+package com.ygorportes.usuario.infrastructure.repository;
+
+import com.ygorportes.usuario.infrastructure.entity.TokenRevogado;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+@Repository
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    // Revogações criadas após revogadoEm e ainda vigentes em expiraEm, percorridas em lotes. A expressão
+    // construtora devolve instâncias não gerenciadas, que não se acumulam no contexto de persistência
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ygorportes.usuario.infrastructure.entity.TokenRevogado(t.chave, t.revogadoEm, t.expiraEm) "
+            + "from TokenRevogado t where t.revogadoEm > :revogadoEm and t.expiraEm > :expiraEm")
+    Stream<TokenRevogado> buscaVigentes(@Param("revogadoEm") Instant revogadoEm, @Param("expiraEm") Instant expiraEm);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevogado t where t.expiraEm < :instante")
+    int removeExpirados(@Param("instante") Instant instante);
+}
@@ -1,19 +1,49 @@
 package com.ygorportes.usuario.infrastructure.repository;
 
 import com.ygorportes.usuario.infrastructure.entity.Usuario;
-import jakarta.transaction.Transactional;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    // Métodos derivados não herdam a transação read-only do SimpleJpaRepository; sem ela a consulta iria ao primário
+    @Transactional(readOnly = true)
     boolean existsByEmail(String email);
 
     Optional<Usuario> findByEmail(String email);
 
     @Transactional
     void deleteByEmail(String email);
+
+    // Incrementa a versão do usuário no commit mesmo sem alterar os seus campos (lock otimista forçado):
+    // o ETag do GET /usuario é essa versão e a resposta inclui os endereços e telefones
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select u from Usuario u where u.id = :id")
+    Optional<Usuario> buscaIncrementandoVersao(@Param("id") Long id);
+
+    // Percorre os e-mails em lotes, sem carregar todos em memória (usado na reconstrução do filtro de Bloom)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from Usuario u")
+    Stream<String> buscaTodosEmails();
+
+    @Query("select coalesce(max(u.id), 0) from Usuario u")
+    long buscaMaiorId();
+
+    // Cadastros com id acima do informado, feitos por qualquer instância (sincronização do filtro de Bloom)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.ygorportes.usuario.infrastructure.repository.EmailCadastrado(u.id, u.email) "
+            + "from Usuario u where u.id > :id")
+    Stream<EmailCadastrado> buscaEmailsAposId(@Param("id") long id);
 }
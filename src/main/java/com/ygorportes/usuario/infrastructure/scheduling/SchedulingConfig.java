@@ -0,0 +1,13 @@
+package com.ygorportes.usuario.infrastructure.scheduling;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tarefas agendadas (filtro de Bloom e lista de revogação); app.scheduling.enabled=false as desliga, por exemplo
+// em testes que medem o uso dos pools de conexão
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,94 @@
+package com.ygorportes.usuario.infrastructure.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Conjunto de jti (UUID) com endereçamento aberto em um AtomicLongArray: dois longs por posição, sem objeto por
+// elemento. Consultas sem lock; inclusões serializadas, com a tabela dobrando acima de 50% de ocupação para manter
+// curtas as sondagens das consultas de tokens não revogados (o caso comum).
+final class JtiSet {
+
+    private static final int POSICOES_INICIAIS = 16;
+    private static final int MAXIMO_POSICOES = 1 << 29;
+
+    // [msb0, lsb0, msb1, lsb1, ...]; msb zero marca posição vazia. Trocada inteira no crescimento
+    private volatile AtomicLongArray tabela = new AtomicLongArray(POSICOES_INICIAIS * 2);
+    private volatile int tamanho;
+
+    // msb zero não é representável; UUID.randomUUID nunca o gera (os bits de versão ficam no msb)
+    synchronized boolean adiciona(long msb, long lsb) {
+        if (msb == 0) {
+            return false;
+        }
+        AtomicLongArray atual = tabela;
+        int posicoes = atual.length() / 2;
+        if ((tamanho + 1) * 2L > posicoes) {
+            if (posicoes >= MAXIMO_POSICOES) {
+                throw new IllegalStateException("Limite de jti por bucket atingido: " + tamanho);
+            }
+            atual = cresce(atual);
+        }
+        if (!insere(atual, msb, lsb)) {
+            return false;
+        }
+        tamanho++;
+        return true;
+    }
+
+    boolean contem(long msb, long lsb) {
+        AtomicLongArray atual = tabela;
+        int mascara = atual.length() / 2 - 1;
+        for (int posicao = indice(msb, lsb) & mascara; ; posicao = (posicao + 1) & mascara) {
+            // O msb é gravado por último: lido diferente de zero, o lsb da mesma posição já está visível
+            long msbAtual = atual.get(posicao * 2);
+            if (msbAtual == 0) {
+                return false;
+            }
+            if (msbAtual == msb && atual.get(posicao * 2 + 1) == lsb) {
+                return true;
+            }
+        }
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private static boolean insere(AtomicLongArray tabela, long msb, long lsb) {
+        int mascara = tabela.length() / 2 - 1;
+        for (int posicao = indice(msb, lsb) & mascara; ; posicao = (posicao + 1) & mascara) {
+            long msbAtual = tabela.get(posicao * 2);
+            if (msbAtual == 0) {
+                tabela.set(posicao * 2 + 1, lsb);
+                tabela.set(posicao * 2, msb);
+                return true;
+            }
+            if (msbAtual == msb && tabela.get(posicao * 2 + 1) == lsb) {
+                return false;
+            }
+        }
+    }
+
+    // Consultas em andamento seguem na tabela antiga, que não é mais alterada
+    private AtomicLongArray cresce(AtomicLongArray atual) {
+        AtomicLongArray nova = new AtomicLongArray(atual.length() * 2);
+        for (int i = 0; i < atual.length(); i += 2) {
+            long msb = atual.get(i);
+            if (msb != 0) {
+                insere(nova, msb, atual.get(i + 1));
+            }
+        }
+        tabela = nova;
+        return nova;
+    }
+
+    // Finalizador do MurmurHash3: jti que não vieram de UUID.randomUUID também ficam bem distribuídos
+    private static int indice(long msb, long lsb) {
+        long hash = msb ^ Long.rotateLeft(lsb, 32);
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+}
@@ -1,5 +1,9 @@
 package com.ygorportes.usuario.infrastructure.security;
 
+import com.ygorportes.usuario.infrastructure.datasource.LeituraPropriaContext;
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,14 +19,17 @@ import java.io.IOException;
 // Define a classe JwtRequestFilter, que estende OncePerRequestFilter
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    // Define propriedades para armazenar instâncias de JwtUtil e UserDetailsService
+    // Define propriedades para armazenar instâncias de JwtUtil, UserDetailsService e RevogacaoTokenService
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final RevogacaoTokenService revogacaoTokenService;
 
     // Construtor que inicializa as propriedades com instâncias fornecidas
-    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtRequestFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                            RevogacaoTokenService revogacaoTokenService) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revogacaoTokenService = revogacaoTokenService;
     }
 
     // Método chamado uma vez por requisição para processar o filtro
@@ -30,32 +37,53 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
-        // Obtém o valor do header "Authorization" da requisição
-        final String authorizationHeader = request.getHeader("Authorization");
-
-        // Verifica se o cabeçalho existe e começa com "Bearer "
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            // Extrai o token JWT do cabeçalho
-            final String token = authorizationHeader.substring(7);
-            // Extrai o nome de usuário do token JWT
-            final String username = jwtUtil.extrairEmailToken(token);
-
-            // Se o nome de usuário não for nulo e o usuário não estiver autenticado ainda
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Carrega os detalhes do usuário a partir do nome de usuário
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                // Valida o token JWT
-                if (jwtUtil.validateToken(token, username)) {
-                    // Cria um objeto de autenticação com as informações do usuário
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    // Define a autenticação no contexto de segurança
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+        // O contexto de leitura própria é limpo no finally também quando a autenticação falha (ex.: usuário
+        // excluído por outra instância), para não vazar para a próxima requisição da mesma thread do Tomcat
+        try {
+            // Obtém o valor do header "Authorization" da requisição
+            final String authorizationHeader = request.getHeader("Authorization");
+
+            // Verifica se o cabeçalho existe e começa com "Bearer "
+            if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+                // Extrai o token JWT do cabeçalho e analisa as claims uma única vez
+                final Claims claims = claimsDoToken(authorizationHeader.substring(7));
+
+                if (claims != null) {
+                    // Extrai o nome de usuário das claims
+                    final String username = claims.getSubject();
+                    // Define o tenant da requisição a partir do token, que prevalece sobre o cabeçalho X-Tenant-Id
+                    TenantContext.setTenant(JwtUtil.tenantDasClaims(claims));
+                    // Leituras dos dados do titular do token logo após as suas próprias escritas vão para o primário
+                    LeituraPropriaContext.adicionaUsuario(username);
+
+                    // Expiração e lista de revogação (em memória) são conferidas nas claims antes de qualquer acesso ao banco
+                    if (SecurityContextHolder.getContext().getAuthentication() == null
+                            && jwtUtil.validaClaims(claims)
+                            && !revogacaoTokenService.estaRevogado(claims)) {
+                        // Carrega os detalhes do usuário a partir do nome de usuário
+                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                        // Cria um objeto de autenticação com as informações do usuário
+                        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                                userDetails, null, userDetails.getAuthorities());
+                        // Define a autenticação no contexto de segurança
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
                 }
             }
+
+            // Continua a cadeia de filtros, permitindo que a requisição prossiga
+            chain.doFilter(request, response);
+        } finally {
+            LeituraPropriaContext.limpa();
         }
+    }
 
-        // Continua a cadeia de filtros, permitindo que a requisição prossiga
-        chain.doFilter(request, response);
+    // Token com assinatura inválida, malformado ou expirado segue sem autenticação (acesso negado nas rotas protegidas)
+    private Claims claimsDoToken(String token) {
+        try {
+            return jwtUtil.extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.ygorportes.usuario.infrastructure.security;
 
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -8,21 +9,30 @@ import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtUtil {
 
+    // Validade dos tokens emitidos (1 hora)
+    public static final long VALIDADE_TOKEN_MILLIS = 1000 * 60 * 60;
+
+    // Claim com o tenant do usuário
+    public static final String CLAIM_TENANT = "tenant";
+
     // Chave secreta usada para assinar e verificar tokens JWT
     private final String secretKey = "sua-chave-secreta-super-segura-que-deve-ser-bem-longa";
 
 
 
-    // Gera um token JWT com o nome de usuário e validade de 1 hora
-    public String generateToken(String username) {
+    // Gera um token JWT com o nome de usuário, o tenant e validade de 1 hora
+    public String generateToken(String username, String tenant) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // Define um identificador único (jti), usado na revogação do token
                 .setSubject(username) // Define o nome de usuário como o assunto do token
+                .claim(CLAIM_TENANT, tenant) // Define o tenant do usuário
                 .setIssuedAt(new Date()) // Define a data e hora de emissão do token
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // Define a data e hora de expiração (1 hora a partir da emissão)
+                .setExpiration(new Date(System.currentTimeMillis() + VALIDADE_TOKEN_MILLIS)) // Define a data e hora de expiração (1 hora a partir da emissão)
                 .signWith(Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256) // Converte a chave secreta em bytes e assina o token com ela
                 .compact(); // Constrói o token JWT
     }
@@ -42,12 +52,25 @@ public class JwtUtil {
         return extractClaims(token).getSubject();
     }
 
+    // Extrai o tenant das claims; tokens emitidos antes da claim existir pertencem ao tenant padrão
+    public static String tenantDasClaims(Claims claims) {
+        String tenant = claims.get(CLAIM_TENANT, String.class);
+        return tenant != null ? tenant : TenantContext.TENANT_PADRAO;
+    }
+
     // Verifica se o token JWT está expirado
     public boolean isTokenExpired(String token) {
         // Compara a data de expiração do token com a data atual
         return extractClaims(token).getExpiration().before(new Date());
     }
 
+    // Valida claims já extraídas (assinatura conferida na extração): exige usuário e expiração futura
+    public boolean validaClaims(Claims claims) {
+        return claims.getSubject() != null
+                && claims.getExpiration() != null
+                && claims.getExpiration().after(new Date());
+    }
+
     // Valida o token JWT verificando o nome de usuário e se o token não está expirado
     public boolean validateToken(String token, String username) {
         // Extrai o nome de usuário do token
@@ -0,0 +1,287 @@
+package com.ygorportes.usuario.infrastructure.security;
+
+import com.ygorportes.usuario.infrastructure.entity.TokenRevogado;
+import com.ygorportes.usuario.infrastructure.repository.TokenRevogadoRepository;
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
+import com.ygorportes.usuario.infrastructure.tenant.TenantProperties;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// Lista de revogação de JWT persistida no banco e espelhada em memória: o filtro nunca consulta o banco.
+// Os jti revogados ficam em buckets pela expiração do token (de minuto em minuto); a expiração do token
+// indica o bucket, então a consulta é O(1), e buckets vencidos são descartados inteiros, sem varredura.
+// Cada bucket guarda os jti como pares de long (JtiSet), sem um objeto por token revogado.
+// Cada tenant tem sua partição, com limites próprios: um tenant com muitas revogações não consome a memória dos demais.
+@Slf4j
+@Service
+public class RevogacaoTokenService {
+
+    private static final String PREFIXO_JTI = "jti:";
+    private static final String PREFIXO_USUARIO = "sub:";
+    private static final long TAMANHO_BUCKET_MILLIS = Duration.ofMinutes(1).toMillis();
+    // Margem na sincronização para cobrir atraso de réplica e relógios entre instâncias
+    private static final Duration MARGEM_SINCRONIZACAO = Duration.ofMinutes(1);
+
+    private final TokenRevogadoRepository tokenRevogadoRepository;
+    private final TransactionTemplate transacaoLeitura;
+    private final TenantProperties tenantProperties;
+    private final long maximoTokensPadrao;
+    private final int maximoUsuariosPadrao;
+
+    private final Map<String, Particao> particoes = new ConcurrentHashMap<>();
+
+    private volatile Instant ultimaSincronizacao = Instant.EPOCH;
+    // Falso até a primeira carga completa; até lá todo token é tratado como revogado
+    private volatile boolean carregado;
+
+    public RevogacaoTokenService(TokenRevogadoRepository tokenRevogadoRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 TenantProperties tenantProperties,
+                                 @Value("${app.token-revogado.max-tokens-per-tenant:1000000}") long maximoTokensPadrao,
+                                 @Value("${app.token-revogado.max-users-per-tenant:100000}") int maximoUsuariosPadrao) {
+        this.tokenRevogadoRepository = tokenRevogadoRepository;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.tenantProperties = tenantProperties;
+        this.maximoTokensPadrao = maximoTokensPadrao;
+        this.maximoUsuariosPadrao = maximoUsuariosPadrao;
+        tenantProperties.ids().forEach(this::particao);
+    }
+
+    public boolean estaRevogado(Claims claims) {
+        if (!carregado) {
+            return true;
+        }
+        Particao particao = particoes.get(JwtUtil.tenantDasClaims(claims));
+        if (particao == null) {
+            return false;
+        }
+        UUID jti = jti(claims.getId());
+        if (jti != null && claims.getExpiration() != null) {
+            JtiSet bucket = particao.jtisPorBucket.get(bucket(claims.getExpiration().getTime()));
+            if (bucket != null && bucket.contem(jti.getMostSignificantBits(), jti.getLeastSignificantBits())) {
+                return true;
+            }
+        }
+        return claims.getIssuedAt() != null
+                && particao.emitidoAntesDoCorte(claims.getSubject(), claims.getIssuedAt().toInstant());
+    }
+
+    // Revoga apenas o token informado, até a sua expiração. Tokens sem jti (emitidos antes dele existir), ou
+    // de um tenant que atingiu o limite de jti, não são revogados individualmente: nesses casos são revogados
+    // todos os tokens do usuário, o que revoga mais tokens, nunca menos
+    public void revogaToken(Claims claims) {
+        String tenant = JwtUtil.tenantDasClaims(claims);
+        UUID jti = jti(claims.getId());
+        Particao particao = particao(tenant);
+        if (jti == null || particao.totalTokens() >= particao.maximoTokens) {
+            revogaTokensDoUsuario(tenant, claims.getSubject());
+            return;
+        }
+        salva(PREFIXO_JTI + tenant + ":" + jti, Instant.now(), claims.getExpiration().toInstant());
+    }
+
+    // Revoga todos os tokens do usuário (no tenant corrente) emitidos até agora;
+    // depois da validade máxima não há mais o que revogar
+    public void revogaTokensDoUsuario(String email) {
+        revogaTokensDoUsuario(TenantContext.getTenant(), email);
+    }
+
+    // O mesmo e-mail pode existir em tenants diferentes: a chave é "sub:<tenant>:<e-mail>"
+    private void revogaTokensDoUsuario(String tenant, String email) {
+        // O iat do JWT tem precisão de segundos: o corte inclui o segundo corrente (ver emitidoAntesDoCorte)
+        Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        salva(PREFIXO_USUARIO + tenant + ":" + email, agora, agora.plusMillis(JwtUtil.VALIDADE_TOKEN_MILLIS));
+    }
+
+    // Carga completa durante a inicialização, antes dos runners: a aplicação só fica pronta para receber tráfego
+    // (readiness ACCEPTING_TRAFFIC) depois dela. Falha na carga interrompe a inicialização
+    @EventListener(ApplicationStartedEvent.class)
+    public void cargaInicial() {
+        sincroniza();
+    }
+
+    // Na primeira execução carrega as revogações vigentes; depois traz as criadas por outras instâncias.
+    // As linhas chegam em lotes por um cursor (transação read-only), sem montar a lista inteira em memória
+    @Scheduled(fixedDelayString = "${app.token-revogado.sync-interval:PT10S}",
+            initialDelayString = "${app.token-revogado.sync-interval:PT10S}")
+    public synchronized void sincroniza() {
+        Instant agora = Instant.now();
+        Instant desde = ultimaSincronizacao.equals(Instant.EPOCH)
+                ? Instant.EPOCH : ultimaSincronizacao.minus(MARGEM_SINCRONIZACAO);
+        transacaoLeitura.executeWithoutResult(status -> {
+            try (Stream<TokenRevogado> revogacoes = tokenRevogadoRepository.buscaVigentes(desde, agora)) {
+                revogacoes.forEach(this::espelha);
+            }
+        });
+        ultimaSincronizacao = agora;
+        carregado = true;
+    }
+
+    // Descarta os buckets cujos tokens já expiraram e remove as linhas vencidas do banco
+    @Scheduled(fixedDelayString = "${app.token-revogado.cleanup-interval:PT1M}")
+    public void removeExpirados() {
+        long agora = System.currentTimeMillis();
+        particoes.values().forEach(particao -> particao.removeExpirados(agora));
+        tokenRevogadoRepository.removeExpirados(Instant.ofEpochMilli(agora));
+    }
+
+    // Grava na transação corrente (se houver) e só espelha em memória após o commit
+    private void salva(String chave, Instant revogadoEm, Instant expiraEm) {
+        TokenRevogado tokenRevogado = tokenRevogadoRepository.save(TokenRevogado.builder()
+                .chave(chave)
+                .revogadoEm(revogadoEm)
+                .expiraEm(expiraEm)
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    espelha(tokenRevogado);
+                }
+            });
+        } else {
+            espelha(tokenRevogado);
+        }
+    }
+
+    // Chaves malformadas são ignoradas: interromper a sincronização deixaria de espelhar todas as demais
+    private void espelha(TokenRevogado tokenRevogado) {
+        String chave = tokenRevogado.getChave();
+        if (chave.startsWith(PREFIXO_JTI)) {
+            // "jti:<tenant>:<jti>"; linhas gravadas antes dos tenants ("jti:<jti>") pertencem ao tenant padrão
+            String valor = chave.substring(PREFIXO_JTI.length());
+            int separador = valor.lastIndexOf(':');
+            UUID jti = jti(valor.substring(separador + 1));
+            if (jti == null) {
+                log.warn("Revogação com jti inválido ignorada: {}", chave);
+                return;
+            }
+            String tenant = separador < 0 ? TenantContext.TENANT_PADRAO : valor.substring(0, separador);
+            particao(tenant).jtisPorBucket
+                    .computeIfAbsent(bucket(tokenRevogado.getExpiraEm().toEpochMilli()), b -> new JtiSet())
+                    .adiciona(jti.getMostSignificantBits(), jti.getLeastSignificantBits());
+        } else if (chave.startsWith(PREFIXO_USUARIO)) {
+            String valor = chave.substring(PREFIXO_USUARIO.length());
+            int separador = valor.indexOf(':');
+            if (separador < 0) {
+                log.warn("Revogação de usuário sem tenant ignorada: {}", chave);
+                return;
+            }
+            particao(valor.substring(0, separador))
+                    .revogaUsuario(valor.substring(separador + 1), tokenRevogado.getRevogadoEm());
+        }
+    }
+
+    // Tenants fora da configuração (ex.: removidos com tokens ainda válidos) recebem os limites globais
+    private Particao particao(String tenant) {
+        return particoes.computeIfAbsent(tenant, id -> {
+            TenantProperties.Tenant configuracao = tenantProperties.getTenant(id);
+            return new Particao(
+                    configuracao.getMaxRevokedTokens() != null ? configuracao.getMaxRevokedTokens() : maximoTokensPadrao,
+                    configuracao.getMaxRevokedUsers() != null ? configuracao.getMaxRevokedUsers() : maximoUsuariosPadrao);
+        });
+    }
+
+    // Nulo quando ausente ou fora do formato gerado por UUID.randomUUID
+    private static UUID jti(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            UUID jti = UUID.fromString(valor);
+            return jti.getMostSignificantBits() != 0 ? jti : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long bucket(long expiracaoMillis) {
+        return expiracaoMillis / TAMANHO_BUCKET_MILLIS;
+    }
+
+    private static Instant maisRecente(Instant a, Instant b) {
+        return a == null || b.isAfter(a) ? b : a;
+    }
+
+    private static class Particao {
+
+        private final long maximoTokens;
+        private final int maximoUsuarios;
+
+        // Bucket (expiração / 1 minuto) -> jti revogados que expiram naquele minuto
+        private final Map<Long, JtiSet> jtisPorBucket = new ConcurrentHashMap<>();
+        // E-mail -> instante a partir do qual tokens emitidos antes dele são inválidos (troca de senha, exclusão)
+        private final Map<String, Instant> usuariosRevogados = new ConcurrentHashMap<>();
+        // Corte do tenant inteiro, usado quando os cortes por usuário passam do limite
+        private volatile Instant tenantRevogadoEm;
+
+        private Particao(long maximoTokens, int maximoUsuarios) {
+            this.maximoTokens = maximoTokens;
+            this.maximoUsuarios = maximoUsuarios;
+        }
+
+        private long totalTokens() {
+            return jtisPorBucket.values().stream().mapToLong(JtiSet::tamanho).sum();
+        }
+
+        // O corte é truncado para o segundo, como o iat: um token do mesmo segundo pode ter sido emitido antes
+        // da revogação e também é revogado (revoga a mais, nunca a menos)
+        private boolean emitidoAntesDoCorte(String email, Instant emissao) {
+            Instant corteUsuario = email != null ? usuariosRevogados.get(email) : null;
+            Instant corteTenant = tenantRevogadoEm;
+            return (corteUsuario != null && !emissao.isAfter(corteUsuario))
+                    || (corteTenant != null && !emissao.isAfter(corteTenant));
+        }
+
+        // Acima do limite, os cortes por usuário são trocados por um corte do tenant no mais recente deles: revoga
+        // também tokens de outros usuários do tenant (novo login), mas mantém a memória limitada. O corte do tenant é
+        // publicado antes da remoção, e só saem os cortes que ele cobre
+        private void revogaUsuario(String email, Instant revogadoEm) {
+            usuariosRevogados.merge(email, revogadoEm, (atual, novo) -> novo.isAfter(atual) ? novo : atual);
+            if (usuariosRevogados.size() <= maximoUsuarios) {
+                return;
+            }
+            synchronized (this) {
+                Instant corte = tenantRevogadoEm;
+                for (Instant instante : usuariosRevogados.values()) {
+                    corte = maisRecente(corte, instante);
+                }
+                tenantRevogadoEm = corte;
+                Instant cobertos = corte;
+                usuariosRevogados.values().removeIf(instante -> !instante.isAfter(cobertos));
+            }
+        }
+
+        private void removeExpirados(long agora) {
+            jtisPorBucket.keySet().removeIf(bucket -> (bucket + 1) * TAMANHO_BUCKET_MILLIS <= agora);
+            usuariosRevogados.values().removeIf(revogadoEm -> expirou(revogadoEm, agora));
+            synchronized (this) {
+                if (tenantRevogadoEm != null && expirou(tenantRevogadoEm, agora)) {
+                    tenantRevogadoEm = null;
+                }
+            }
+        }
+
+        private static boolean expirou(Instant revogadoEm, long agora) {
+            return revogadoEm.plusMillis(JwtUtil.VALIDADE_TOKEN_MILLIS).toEpochMilli() <= agora;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.ygorportes.usuario.infrastructure.security;
 
+import com.ygorportes.usuario.infrastructure.tenant.TenantFilter;
+import com.ygorportes.usuario.infrastructure.tenant.TenantProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,22 +23,32 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfig {
 
-    // Instâncias de JwtUtil e UserDetailsService injetadas pelo Spring
+    // Instâncias de JwtUtil, UserDetailsService e RevogacaoTokenService injetadas pelo Spring
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final RevogacaoTokenService revogacaoTokenService;
+    private final TenantProperties tenantProperties;
+    private final MeterRegistry meterRegistry;
 
-    // Construtor para injeção de dependências de JwtUtil e UserDetailsService
+    // Construtor para injeção de dependências de JwtUtil, UserDetailsService, RevogacaoTokenService e dos tenants
     @Autowired
-    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                          RevogacaoTokenService revogacaoTokenService,
+                          TenantProperties tenantProperties, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revogacaoTokenService = revogacaoTokenService;
+        this.tenantProperties = tenantProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     // Configuração do filtro de segurança
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        // Cria uma instância do JwtRequestFilter com JwtUtil e UserDetailsService
-        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService);
+        // Cria uma instância do JwtRequestFilter com JwtUtil, UserDetailsService e RevogacaoTokenService
+        JwtRequestFilter jwtRequestFilter = new JwtRequestFilter(jwtUtil, userDetailsService, revogacaoTokenService);
+        // Cria uma instância do TenantFilter, que define o tenant e mede as requisições por tenant
+        TenantFilter tenantFilter = new TenantFilter(tenantProperties, meterRegistry);
 
         http
                 .csrf(AbstractHttpConfigurer::disable) // Desativa proteção CSRF para APIs REST (não aplicável a APIs que não mantêm estado)
@@ -43,13 +56,15 @@ public class SecurityConfig {
                         .requestMatchers("/usuario/login").permitAll() // Permite acesso ao endpoint de login sem autenticação
                         .requestMatchers(HttpMethod.GET, "/auth").permitAll()// Permite acesso ao endpoint GET /auth sem autenticação
                         .requestMatchers(HttpMethod.POST, "/usuario").permitAll() // Permite acesso ao endpoint POST /usuario sem autenticação
+                        .requestMatchers(HttpMethod.GET, "/usuario/email-disponivel").permitAll() // Permite verificar a disponibilidade de e-mail no cadastro sem autenticação
                         .requestMatchers("/usuario/**").authenticated() // Requer autenticação para qualquer endpoint que comece com /usuario/
                         .anyRequest().authenticated() // Requer autenticação para todas as outras requisições
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Configura a política de sessão como stateless (sem sessão)
                 )
-                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class); // Adiciona o filtro JWT antes do filtro de autenticação padrão
+                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class) // Adiciona o filtro JWT antes do filtro de autenticação padrão
+                .addFilterBefore(tenantFilter, JwtRequestFilter.class); // Adiciona o filtro de tenant antes do filtro JWT
 
         // Retorna a configuração do filtro de segurança construída
         return http.build();
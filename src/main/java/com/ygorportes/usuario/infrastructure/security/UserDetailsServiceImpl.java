@@ -1,5 +1,6 @@
 package com.ygorportes.usuario.infrastructure.security;
 
+import com.ygorportes.usuario.infrastructure.datasource.LeituraPropriaContext;
 import com.ygorportes.usuario.infrastructure.entity.Usuario;
 import com.ygorportes.usuario.infrastructure.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +8,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -17,7 +19,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     // Implementação do método para carregar detalhes do usuário pelo e-mail
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        // Logo após uma troca de senha o login precisa ler o hash novo no primário
+        LeituraPropriaContext.adicionaUsuario(email);
         // Busca o usuário no banco de dados pelo e-mail
         Usuario usuario = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + email));
@@ -0,0 +1,25 @@
+package com.ygorportes.usuario.infrastructure.tenant;
+
+// Guarda o tenant da requisição (ou tarefa agendada) corrente na thread
+public final class TenantContext {
+
+    public static final String TENANT_PADRAO = "default";
+
+    private static final ThreadLocal<String> TENANT_ATUAL = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenant() {
+        String tenant = TENANT_ATUAL.get();
+        return tenant != null ? tenant : TENANT_PADRAO;
+    }
+
+    public static void setTenant(String tenant) {
+        TENANT_ATUAL.set(tenant);
+    }
+
+    public static void limpa() {
+        TENANT_ATUAL.remove();
+    }
+}
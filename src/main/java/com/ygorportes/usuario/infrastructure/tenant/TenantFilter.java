@@ -0,0 +1,56 @@
+package com.ygorportes.usuario.infrastructure.tenant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// Define o tenant da requisição pelo cabeçalho X-Tenant-Id (cadastro, login e rotas públicas) e mede
+// vazão e latência por tenant. Em requisições autenticadas o JwtRequestFilter substitui pelo tenant do token.
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO_TENANT = "X-Tenant-Id";
+
+    private final Set<String> tenantsConhecidos;
+    private final MeterRegistry meterRegistry;
+
+    public TenantFilter(TenantProperties tenantProperties, MeterRegistry meterRegistry) {
+        this.tenantsConhecidos = tenantProperties.ids();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String tenant = request.getHeader(CABECALHO_TENANT);
+        if (tenant == null || tenant.isBlank()) {
+            tenant = TenantContext.TENANT_PADRAO;
+        }
+        // Tenants desconhecidos são recusados, o que também mantém limitada a cardinalidade das métricas
+        if (!tenantsConhecidos.contains(tenant)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.getWriter().write("Tenant desconhecido: " + tenant);
+            return;
+        }
+
+        TenantContext.setTenant(tenant);
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            amostra.stop(Timer.builder("usuario.http.requisicoes")
+                    .description("Vazão e latência das requisições por tenant")
+                    .tag("tenant", TenantContext.getTenant())
+                    .tag("status", String.valueOf(response.getStatus()))
+                    .register(meterRegistry));
+            TenantContext.limpa();
+        }
+    }
+}
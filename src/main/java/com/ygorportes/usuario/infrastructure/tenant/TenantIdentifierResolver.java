@@ -0,0 +1,17 @@
+package com.ygorportes.usuario.infrastructure.tenant;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+// Informa ao Hibernate o tenant corrente, usado para preencher e filtrar as colunas @TenantId
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return TenantContext.getTenant();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ygorportes.usuario.infrastructure.tenant;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Tenants configurados em app.tenants.<id>.*; o tenant "default" sempre existe
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app")
+public class TenantProperties {
+
+    private Map<String, Tenant> tenants = new LinkedHashMap<>();
+
+    public Set<String> ids() {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(TenantContext.TENANT_PADRAO);
+        ids.addAll(tenants.keySet());
+        return ids;
+    }
+
+    public Tenant getTenant(String id) {
+        return tenants.getOrDefault(id, new Tenant());
+    }
+
+    // Limites por tenant; valores nulos usam a configuração global
+    @Getter
+    @Setter
+    public static class Tenant {
+
+        // Máximo de conexões do pool do tenant (spring.datasource.hikari.maximum-pool-size se nulo)
+        private Integer maxPoolSize;
+
+        // Teto de memória do filtro de Bloom de e-mails do tenant (app.email-bloom-filter.max-bits se nulo)
+        private Long emailBloomFilterMaxBits;
+
+        // Escritas rastreadas para a leitura das próprias escritas (app.datasource.read-your-writes-max-tracked se nulo)
+        private Integer readYourWritesMaxTracked;
+
+        // jti revogados mantidos em memória (app.token-revogado.max-tokens-per-tenant se nulo)
+        private Long maxRevokedTokens;
+
+        // Usuários com todos os tokens revogados mantidos em memória (app.token-revogado.max-users-per-tenant se nulo)
+        private Integer maxRevokedUsers;
+    }
+}
@@ -0,0 +1,29 @@
+-- Schema inicial, equivalente ao gerado pelo Hibernate (ddl-auto=update) até aqui.
+-- Bancos existentes são marcados nesta versão pelo baseline-on-migrate e pulam este script.
+
+CREATE TABLE usuario (
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome  VARCHAR(100),
+    email VARCHAR(100),
+    senha VARCHAR(255)
+);
+
+CREATE TABLE endereco (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rua         VARCHAR(255),
+    numero      VARCHAR(255),
+    complemento VARCHAR(10),
+    cidade      VARCHAR(150),
+    estado      VARCHAR(2),
+    cep         VARCHAR(9),
+    usuario_id  BIGINT,
+    CONSTRAINT fk_endereco_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+);
+
+CREATE TABLE telefone (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    numero     VARCHAR(10),
+    ddd        VARCHAR(3),
+    usuario_id BIGINT,
+    CONSTRAINT fk_telefone_usuario FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+);
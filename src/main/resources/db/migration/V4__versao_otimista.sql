@@ -0,0 +1,4 @@
+-- Coluna de versão para o lock otimista (@Version) de Usuario, Endereco e Telefone
+ALTER TABLE usuario ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE endereco ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE telefone ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Lista de revogação de JWT: chave "jti:<id do token>" ou "sub:<e-mail>" (todos os tokens emitidos antes de revogado_em)
+CREATE TABLE token_revogado (
+    chave       VARCHAR(150) PRIMARY KEY,
+    revogado_em TIMESTAMP WITH TIME ZONE NOT NULL,
+    expira_em   TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_token_revogado_revogado_em ON token_revogado (revogado_em);
+CREATE INDEX idx_token_revogado_expira_em ON token_revogado (expira_em);
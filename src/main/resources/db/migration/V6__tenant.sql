@@ -0,0 +1,11 @@
+-- Multi-tenancy por discriminador: registros existentes pertencem ao tenant "default"
+ALTER TABLE usuario ADD COLUMN tenant_id VARCHAR(50) NOT NULL DEFAULT 'default';
+ALTER TABLE endereco ADD COLUMN tenant_id VARCHAR(50) NOT NULL DEFAULT 'default';
+ALTER TABLE telefone ADD COLUMN tenant_id VARCHAR(50) NOT NULL DEFAULT 'default';
+
+-- As buscas por e-mail passam a filtrar também pelo tenant
+DROP INDEX IF EXISTS idx_usuario_email;
+CREATE INDEX idx_usuario_tenant_email ON usuario (tenant_id, email);
+
+-- Revogações por usuário passam a ser chaveadas por tenant ("sub:<tenant>:<e-mail>")
+UPDATE token_revogado SET chave = 'sub:default:' || SUBSTRING(chave FROM 5) WHERE chave LIKE 'sub:%';
@@ -0,0 +1,86 @@
+-- Layout opcional (somente PostgreSQL 11+): endereco e telefone particionadas por hash de usuario_id.
+-- Ative incluindo classpath:db/partitioned em spring.flyway.locations. Roda depois de V1-V6 e copia
+-- todas as colunas atuais; não use spring.flyway.out-of-order com este script.
+-- Novas migrações em db/migration devem usar versões acima desta. Se uma delas alterar endereco ou
+-- telefone, este script precisa copiar a coluna nova: a verificação abaixo falha em vez de perdê-la.
+-- Tabelas particionadas só aceitam unicidade incluindo a chave de partição: a PK é (id, usuario_id), o que
+-- exige usuario_id no INSERT (Usuario.enderecos/telefones mapeados com a chave da coleção não nula).
+
+DO $$
+DECLARE
+    colunas_endereco TEXT;
+    colunas_telefone TEXT;
+BEGIN
+    SELECT string_agg(column_name, ',' ORDER BY column_name) INTO colunas_endereco
+    FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = 'endereco';
+    SELECT string_agg(column_name, ',' ORDER BY column_name) INTO colunas_telefone
+    FROM information_schema.columns WHERE table_schema = current_schema() AND table_name = 'telefone';
+    IF colunas_endereco IS DISTINCT FROM 'cep,cidade,complemento,estado,id,numero,rua,tenant_id,usuario_id,versao'
+            OR colunas_telefone IS DISTINCT FROM 'ddd,id,numero,tenant_id,usuario_id,versao' THEN
+        RAISE EXCEPTION 'Colunas inesperadas (endereco: %, telefone: %): atualize a cópia deste script',
+            colunas_endereco, colunas_telefone;
+    END IF;
+    -- Linhas órfãs não cabem na PK; decida o destino delas (remover ou associar) antes de migrar
+    IF EXISTS (SELECT 1 FROM endereco WHERE usuario_id IS NULL)
+            OR EXISTS (SELECT 1 FROM telefone WHERE usuario_id IS NULL) THEN
+        RAISE EXCEPTION 'endereco/telefone com usuario_id nulo impedem a PK (id, usuario_id)';
+    END IF;
+END $$;
+
+ALTER TABLE endereco RENAME TO endereco_legado;
+ALTER TABLE telefone RENAME TO telefone_legado;
+
+CREATE SEQUENCE endereco_particionada_id_seq;
+CREATE SEQUENCE telefone_particionada_id_seq;
+
+CREATE TABLE endereco (
+    id          BIGINT NOT NULL DEFAULT nextval('endereco_particionada_id_seq'),
+    rua         VARCHAR(255),
+    numero      VARCHAR(255),
+    complemento VARCHAR(10),
+    cidade      VARCHAR(150),
+    estado      VARCHAR(2),
+    cep         VARCHAR(9),
+    usuario_id  BIGINT      NOT NULL,
+    versao      BIGINT      NOT NULL DEFAULT 0,
+    tenant_id   VARCHAR(50) NOT NULL DEFAULT 'default',
+    CONSTRAINT pk_endereco_particionada PRIMARY KEY (id, usuario_id),
+    CONSTRAINT fk_endereco_usuario_particionada FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) PARTITION BY HASH (usuario_id);
+
+CREATE TABLE telefone (
+    id         BIGINT NOT NULL DEFAULT nextval('telefone_particionada_id_seq'),
+    numero     VARCHAR(10),
+    ddd        VARCHAR(3),
+    usuario_id BIGINT      NOT NULL,
+    versao     BIGINT      NOT NULL DEFAULT 0,
+    tenant_id  VARCHAR(50) NOT NULL DEFAULT 'default',
+    CONSTRAINT pk_telefone_particionada PRIMARY KEY (id, usuario_id),
+    CONSTRAINT fk_telefone_usuario_particionada FOREIGN KEY (usuario_id) REFERENCES usuario (id)
+) PARTITION BY HASH (usuario_id);
+
+ALTER SEQUENCE endereco_particionada_id_seq OWNED BY endereco.id;
+ALTER SEQUENCE telefone_particionada_id_seq OWNED BY telefone.id;
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE endereco_p%s PARTITION OF endereco FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+        EXECUTE format('CREATE TABLE telefone_p%s PARTITION OF telefone FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    END LOOP;
+END $$;
+
+-- Buscas por id (PUT /usuario/endereco e /telefone) usam o índice da PK, que começa pelo id
+CREATE INDEX idx_endereco_particionada_usuario_id ON endereco (usuario_id);
+CREATE INDEX idx_telefone_particionada_usuario_id ON telefone (usuario_id);
+
+INSERT INTO endereco (id, rua, numero, complemento, cidade, estado, cep, usuario_id, versao, tenant_id)
+SELECT id, rua, numero, complemento, cidade, estado, cep, usuario_id, versao, tenant_id FROM endereco_legado;
+INSERT INTO telefone (id, numero, ddd, usuario_id, versao, tenant_id)
+SELECT id, numero, ddd, usuario_id, versao, tenant_id FROM telefone_legado;
+
+SELECT setval('endereco_particionada_id_seq', COALESCE((SELECT MAX(id) FROM endereco), 0) + 1, false);
+SELECT setval('telefone_particionada_id_seq', COALESCE((SELECT MAX(id) FROM telefone), 0) + 1, false);
+
+DROP TABLE endereco_legado;
+DROP TABLE telefone_legado;
@@ -0,0 +1,105 @@
+package com.ygorportes.usuario.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// O ETag do GET /usuario cobre também endereços e telefones: alterar um deles invalida o cache do cliente
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("integracao")
+class UsuarioControllerEtagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String email;
+    private String token;
+    private JsonNode cadastro;
+
+    @BeforeEach
+    void cadastraELoga() throws Exception {
+        email = "etag-" + UUID.randomUUID() + "@teste.local";
+        String usuario = """
+                {"nome": "Etag", "email": "%s", "senha": "senha",
+                 "enderecos": [{"rua": "Rua A", "numero": "1", "cidade": "Cidade", "estado": "SP", "cep": "00000-000"}],
+                 "telefones": [{"numero": "999999999", "ddd": "11"}]}
+                """.formatted(email);
+        cadastro = objectMapper.readTree(mockMvc.perform(post("/usuario")
+                        .contentType(MediaType.APPLICATION_JSON).content(usuario))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        token = mockMvc.perform(post("/usuario/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"%s\", \"senha\": \"senha\"}".formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void semAlteracaoRespondeNaoModificado() throws Exception {
+        String etag = busca(null).getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(busca(etag).getResponse().getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void alteracaoDeEnderecoMudaOEtagDoUsuario() throws Exception {
+        String etag = busca(null).getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/usuario/endereco")
+                        .param("id", cadastro.path("enderecos").path(0).path("id").asText())
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"numero\": \"2\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult resultado = busca(etag);
+        assertThat(resultado.getResponse().getStatus()).isEqualTo(200);
+        assertThat(resultado.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(objectMapper.readTree(resultado.getResponse().getContentAsString())
+                .path("enderecos").path(0).path("numero").asText()).isEqualTo("2");
+    }
+
+    @Test
+    void alteracaoDeTelefoneMudaOEtagDoUsuario() throws Exception {
+        String etag = busca(null).getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/usuario/telefone")
+                        .param("id", cadastro.path("telefones").path(0).path("id").asText())
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"numero\": \"988888888\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult resultado = busca(etag);
+        assertThat(resultado.getResponse().getStatus()).isEqualTo(200);
+        assertThat(resultado.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    private MvcResult busca(String ifNoneMatch) throws Exception {
+        var requisicao = get("/usuario").param("email", email).header(HttpHeaders.AUTHORIZATION, token);
+        if (ifNoneMatch != null) {
+            requisicao.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(requisicao).andReturn();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ygorportes.usuario.controller;
+
+import com.ygorportes.usuario.infrastructure.exceptions.BadRequestException;
+import com.ygorportes.usuario.infrastructure.exceptions.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UsuarioControllerTest {
+
+    @Test
+    void etagFortePassaAVersaoEsperada() {
+        assertThat(UsuarioController.versaoDoIfMatch("\"3\"")).isEqualTo(3L);
+        assertThat(UsuarioController.versaoDoIfMatch("  \"42\" ")).isEqualTo(42L);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "*", " * "})
+    void semPreCondicao(String ifMatch) {
+        assertThat(UsuarioController.versaoDoIfMatch(ifMatch)).isNull();
+    }
+
+    @Test
+    void etagFracoNuncaSatisfazAComparacaoForte() {
+        assertThatThrownBy(() -> UsuarioController.versaoDoIfMatch("W/\"3\""))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"3", "\"\"", "\"abc\"", "\"3", "3\"", "\"3\", \"4\"", "\""})
+    void ifMatchForaDoFormatoEhRequisicaoInvalida(String ifMatch) {
+        assertThatThrownBy(() -> UsuarioController.versaoDoIfMatch(ifMatch))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
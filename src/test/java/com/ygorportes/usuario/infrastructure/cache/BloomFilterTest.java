@@ -0,0 +1,74 @@
+package com.ygorportes.usuario.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    private static final int INSERIDOS = 10_000;
+    private static final int CONSULTADOS = 100_000;
+
+    @Test
+    void dimensionaPelaFormulaOtimaArredondandoParaPalavrasDe64Bits() {
+        // m = -n ln(p) / ln(2)^2 = 9586 bits para n = 1000 e p = 1%, arredondado para 9600
+        BloomFilter filtro = new BloomFilter(1000, 0.01, Long.MAX_VALUE);
+
+        assertThat(filtro.getNumeroBits()).isEqualTo(9600);
+    }
+
+    @Test
+    void respeitaOTetoDeMemoria() {
+        BloomFilter filtro = new BloomFilter(1000, 0.01, 1000);
+
+        assertThat(filtro.getNumeroBits()).isEqualTo(1024);
+    }
+
+    @Test
+    void naoTemFalsosNegativos() {
+        BloomFilter filtro = preenchido(new BloomFilter(INSERIDOS, 0.01, Long.MAX_VALUE));
+
+        for (int i = 0; i < INSERIDOS; i++) {
+            assertThat(filtro.podeConter(inserido(i))).isTrue();
+        }
+        assertThat(filtro.getElementos()).isEqualTo(INSERIDOS);
+    }
+
+    @Test
+    void taxaDeFalsoPositivoFicaProximaDaConfigurada() {
+        BloomFilter filtro = preenchido(new BloomFilter(INSERIDOS, 0.01, Long.MAX_VALUE));
+
+        assertThat(taxaFalsoPositivoObservada(filtro)).isLessThan(0.02);
+        assertThat(filtro.taxaFalsoPositivoEstimada()).isBetween(0.005, 0.02);
+    }
+
+    @Test
+    void filtroLimitadoPeloTetoDegradaATaxaEstimada() {
+        BloomFilter filtro = preenchido(new BloomFilter(INSERIDOS, 0.01, 16_384));
+
+        assertThat(filtro.getNumeroBits()).isEqualTo(16_384);
+        assertThat(taxaFalsoPositivoObservada(filtro)).isGreaterThan(0.1);
+        assertThat(filtro.taxaFalsoPositivoEstimada()).isGreaterThan(0.1);
+    }
+
+    private static BloomFilter preenchido(BloomFilter filtro) {
+        for (int i = 0; i < INSERIDOS; i++) {
+            filtro.adiciona(inserido(i));
+        }
+        return filtro;
+    }
+
+    private static double taxaFalsoPositivoObservada(BloomFilter filtro) {
+        int positivos = 0;
+        for (int i = 0; i < CONSULTADOS; i++) {
+            if (filtro.podeConter("ausente-" + i + "@teste.local")) {
+                positivos++;
+            }
+        }
+        return (double) positivos / CONSULTADOS;
+    }
+
+    private static String inserido(int i) {
+        return "usuario-" + i + "@teste.local";
+    }
+}
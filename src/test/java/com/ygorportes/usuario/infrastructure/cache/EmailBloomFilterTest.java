@@ -0,0 +1,77 @@
+package com.ygorportes.usuario.infrastructure.cache;
+
+import com.ygorportes.usuario.infrastructure.repository.EmailCadastrado;
+import com.ygorportes.usuario.infrastructure.repository.UsuarioRepository;
+import com.ygorportes.usuario.infrastructure.tenant.TenantProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailBloomFilterTest {
+
+    private static final long MAIOR_ID_NA_RECONSTRUCAO = 10;
+
+    private UsuarioRepository repository;
+    private EmailBloomFilter filtro;
+
+    @BeforeEach
+    void configura() {
+        repository = mock(UsuarioRepository.class);
+        when(repository.buscaMaiorId()).thenReturn(MAIOR_ID_NA_RECONSTRUCAO);
+        when(repository.buscaTodosEmails()).thenAnswer(invocacao -> Stream.of("existente@teste.local"));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        filtro = new EmailBloomFilter(repository, new TransactionTemplate(transactionManager), new TenantProperties(),
+                new SimpleMeterRegistry(), 0.01, 1000, 1 << 20);
+    }
+
+    @Test
+    void sincronizacaoAguardaAPrimeiraReconstrucao() {
+        filtro.sincroniza();
+
+        verify(repository, never()).buscaEmailsAposId(anyLong());
+    }
+
+    @Test
+    void cadastroFeitoEmOutraInstanciaChegaPelaSincronizacao() {
+        filtro.reconstroi();
+        assertThat(filtro.podeExistir("existente@teste.local")).isTrue();
+        assertThat(filtro.podeExistir("Outra-Instancia@teste.local")).isFalse();
+
+        when(repository.buscaEmailsAposId(MAIOR_ID_NA_RECONSTRUCAO))
+                .thenReturn(Stream.of(new EmailCadastrado(11L, "outra-instancia@teste.local")));
+        filtro.sincroniza();
+
+        assertThat(filtro.podeExistir("Outra-Instancia@teste.local")).isTrue();
+    }
+
+    @Test
+    void releOIntervaloAnteriorParaNaoPerderCommitsForaDeOrdem() {
+        filtro.reconstroi();
+        when(repository.buscaEmailsAposId(MAIOR_ID_NA_RECONSTRUCAO)).thenReturn(
+                Stream.of(new EmailCadastrado(12L, "primeiro-commit@teste.local")),
+                Stream.of(new EmailCadastrado(11L, "commit-atrasado@teste.local"),
+                        new EmailCadastrado(12L, "primeiro-commit@teste.local")));
+        when(repository.buscaEmailsAposId(12L)).thenReturn(Stream.empty());
+
+        filtro.sincroniza();
+        filtro.sincroniza();
+        filtro.sincroniza();
+
+        assertThat(filtro.podeExistir("commit-atrasado@teste.local")).isTrue();
+        verify(repository).buscaEmailsAposId(12L);
+    }
+}
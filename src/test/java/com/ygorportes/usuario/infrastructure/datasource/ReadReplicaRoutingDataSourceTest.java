@@ -0,0 +1,84 @@
+package com.ygorportes.usuario.infrastructure.datasource;
+
+import com.ygorportes.usuario.business.UsuarioService;
+import com.ygorportes.usuario.business.dto.UsuarioDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Usa o perfil replica-local (primário e réplica no mesmo H2) e identifica o pool usado pelas métricas do Hikari.
+// As tarefas agendadas ficam desligadas: a sincronização da lista de revogação é read-only e usaria a réplica
+// em paralelo aos testes. A carga inicial da revogação termina na inicialização, antes dos testes.
+@SpringBootTest(properties = "app.scheduling.enabled=false")
+@ActiveProfiles("replica-local")
+class ReadReplicaRoutingDataSourceTest {
+
+    private static final String POOL_PRIMARIO = "primary-default";
+    private static final String POOL_REPLICA = "replica-default";
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void limpaContexto() {
+        LeituraPropriaContext.limpa();
+    }
+
+    @Test
+    void leituraDoUsuarioLogoAposSuaEscritaVaiParaOPrimario() {
+        String email = "leitura-propria@teste.local";
+        cadastra(email);
+
+        double replicaAntes = conexoesObtidas(POOL_REPLICA);
+        double primarioAntes = conexoesObtidas(POOL_PRIMARIO);
+        userDetailsService.loadUserByUsername(email);
+
+        assertThat(conexoesObtidas(POOL_REPLICA)).isEqualTo(replicaAntes);
+        assertThat(conexoesObtidas(POOL_PRIMARIO)).isGreaterThan(primarioAntes);
+    }
+
+    @Test
+    void escritaDeUmUsuarioNaoDesviaAsLeiturasDosDemais() {
+        cadastra("outra-escrita@teste.local");
+
+        double replicaAntes = conexoesObtidas(POOL_REPLICA);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("sem-escrita@teste.local"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        assertThat(conexoesObtidas(POOL_REPLICA)).isGreaterThan(replicaAntes);
+    }
+
+    // Cada chamada representa uma requisição: o contexto é limpo ao final, como faz o JwtRequestFilter
+    private void cadastra(String email) {
+        usuarioService.salvaUsuario(UsuarioDTO.builder()
+                .nome("teste")
+                .email(email)
+                .senha("senha")
+                .enderecos(List.of())
+                .telefones(List.of())
+                .build());
+        LeituraPropriaContext.limpa();
+    }
+
+    private double conexoesObtidas(String pool) {
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
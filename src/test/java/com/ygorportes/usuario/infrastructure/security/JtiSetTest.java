@@ -0,0 +1,54 @@
+package com.ygorportes.usuario.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JtiSetTest {
+
+    @Test
+    void encontraTodosOsJtiIncluidosAtravesDosCrescimentos() {
+        JtiSet conjunto = new JtiSet();
+        List<UUID> incluidos = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            UUID jti = UUID.randomUUID();
+            incluidos.add(jti);
+            assertThat(conjunto.adiciona(jti.getMostSignificantBits(), jti.getLeastSignificantBits())).isTrue();
+        }
+
+        assertThat(conjunto.tamanho()).isEqualTo(incluidos.size());
+        for (UUID jti : incluidos) {
+            assertThat(conjunto.contem(jti.getMostSignificantBits(), jti.getLeastSignificantBits())).isTrue();
+        }
+    }
+
+    @Test
+    void naoEncontraJtiAusente() {
+        JtiSet conjunto = new JtiSet();
+        for (int i = 0; i < 1_000; i++) {
+            UUID jti = UUID.randomUUID();
+            conjunto.adiciona(jti.getMostSignificantBits(), jti.getLeastSignificantBits());
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            UUID ausente = UUID.randomUUID();
+            assertThat(conjunto.contem(ausente.getMostSignificantBits(), ausente.getLeastSignificantBits())).isFalse();
+        }
+    }
+
+    @Test
+    void ignoraDuplicadosEJtiComMsbZero() {
+        JtiSet conjunto = new JtiSet();
+        UUID jti = UUID.randomUUID();
+
+        assertThat(conjunto.adiciona(jti.getMostSignificantBits(), jti.getLeastSignificantBits())).isTrue();
+        assertThat(conjunto.adiciona(jti.getMostSignificantBits(), jti.getLeastSignificantBits())).isFalse();
+        assertThat(conjunto.adiciona(0, 42)).isFalse();
+        assertThat(conjunto.contem(0, 42)).isFalse();
+        assertThat(conjunto.tamanho()).isEqualTo(1);
+    }
+}
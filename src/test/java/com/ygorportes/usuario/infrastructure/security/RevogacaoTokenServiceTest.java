@@ -0,0 +1,202 @@
+package com.ygorportes.usuario.infrastructure.security;
+
+import com.ygorportes.usuario.infrastructure.entity.TokenRevogado;
+import com.ygorportes.usuario.infrastructure.repository.TokenRevogadoRepository;
+import com.ygorportes.usuario.infrastructure.tenant.TenantContext;
+import com.ygorportes.usuario.infrastructure.tenant.TenantProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ClaimsBuilder;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RevogacaoTokenServiceTest {
+
+    private static final String EMAIL = "usuario@teste.local";
+
+    private TokenRevogadoRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private RevogacaoTokenService service;
+
+    @BeforeEach
+    void configura() {
+        repository = mock(TokenRevogadoRepository.class);
+        when(repository.save(any(TokenRevogado.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+        when(repository.buscaVigentes(any(), any())).thenAnswer(invocacao -> Stream.empty());
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        service = carregado(1_000_000, 100_000);
+    }
+
+    @AfterEach
+    void limpaTenant() {
+        TenantContext.limpa();
+    }
+
+    @Test
+    void antesDaPrimeiraCargaTodoTokenEhTratadoComoRevogado() {
+        service = new RevogacaoTokenService(repository, transactionManager, new TenantProperties(), 1_000_000, 100_000);
+        Claims token = claims(UUID.randomUUID().toString(), "default", Instant.now(),
+                Instant.now().plus(Duration.ofMinutes(30)));
+        assertThat(service.estaRevogado(token)).isTrue();
+
+        service.sincroniza();
+
+        assertThat(service.estaRevogado(token)).isFalse();
+    }
+
+    @Test
+    void revogaSomenteOTokenInformado() {
+        Instant expiracao = Instant.now().plus(Duration.ofMinutes(30));
+        Claims revogado = claims(UUID.randomUUID().toString(), "default", Instant.now(), expiracao);
+        Claims outro = claims(UUID.randomUUID().toString(), "default", Instant.now(), expiracao);
+
+        service.revogaToken(revogado);
+
+        assertThat(service.estaRevogado(revogado)).isTrue();
+        assertThat(service.estaRevogado(outro)).isFalse();
+    }
+
+    @Test
+    void bucketVencidoEhDescartadoNaLimpeza() {
+        Claims vencido = claims(UUID.randomUUID().toString(), "default",
+                Instant.now().minus(Duration.ofHours(1)), Instant.now().minus(Duration.ofMinutes(2)));
+        Claims vigente = claims(UUID.randomUUID().toString(), "default",
+                Instant.now(), Instant.now().plus(Duration.ofMinutes(30)));
+        service.revogaToken(vencido);
+        service.revogaToken(vigente);
+
+        service.removeExpirados();
+
+        assertThat(service.estaRevogado(vencido)).isFalse();
+        assertThat(service.estaRevogado(vigente)).isTrue();
+        verify(repository).removeExpirados(any(Instant.class));
+    }
+
+    @Test
+    void corteDoUsuarioRevogaApenasTokensEmitidosAntesDeleNoMesmoTenant() {
+        Instant expiracao = Instant.now().plus(Duration.ofMinutes(30));
+        Claims anterior = claims(UUID.randomUUID().toString(), "default", Instant.now().minusSeconds(10), expiracao);
+        Claims posterior = claims(UUID.randomUUID().toString(), "default", Instant.now().plusSeconds(5), expiracao);
+        Claims outroTenant = claims(UUID.randomUUID().toString(), "acme", Instant.now().minusSeconds(10), expiracao);
+
+        service.revogaTokensDoUsuario(EMAIL);
+
+        assertThat(service.estaRevogado(anterior)).isTrue();
+        assertThat(service.estaRevogado(posterior)).isFalse();
+        assertThat(service.estaRevogado(outroTenant)).isFalse();
+    }
+
+    @Test
+    void tokenEmitidoNoMesmoSegundoDoCorteTambemEhRevogado() {
+        service.revogaTokensDoUsuario(EMAIL);
+        ArgumentCaptor<TokenRevogado> salvo = ArgumentCaptor.forClass(TokenRevogado.class);
+        verify(repository).save(salvo.capture());
+        Instant segundoDoCorte = salvo.getValue().getRevogadoEm();
+        Instant expiracao = Instant.now().plus(Duration.ofMinutes(30));
+
+        assertThat(service.estaRevogado(claims(UUID.randomUUID().toString(), "default", segundoDoCorte, expiracao)))
+                .isTrue();
+        assertThat(service.estaRevogado(claims(UUID.randomUUID().toString(), "default",
+                segundoDoCorte.plusSeconds(1), expiracao))).isFalse();
+    }
+
+    @Test
+    void tokenSemJtiRevogaTodosOsTokensDoUsuario() {
+        Claims semJti = claims(null, "default", Instant.now().minusSeconds(10), Instant.now().plus(Duration.ofMinutes(30)));
+
+        service.revogaToken(semJti);
+
+        ArgumentCaptor<TokenRevogado> salvo = ArgumentCaptor.forClass(TokenRevogado.class);
+        verify(repository).save(salvo.capture());
+        assertThat(salvo.getValue().getChave()).isEqualTo("sub:default:" + EMAIL);
+        assertThat(service.estaRevogado(semJti)).isTrue();
+    }
+
+    @Test
+    void sincronizacaoIgnoraChavesMalformadasEEspelhaPorTenant() {
+        UUID legado = UUID.randomUUID();
+        UUID acme = UUID.randomUUID();
+        Instant expiracao = Instant.now().plus(Duration.ofMinutes(30));
+        when(repository.buscaVigentes(any(), any())).thenReturn(Stream.of(
+                new TokenRevogado("jti:null", Instant.now(), expiracao),
+                new TokenRevogado("jti:default:null", Instant.now(), expiracao),
+                new TokenRevogado("jti:" + legado, Instant.now(), expiracao),
+                new TokenRevogado("jti:acme:" + acme, Instant.now(), expiracao)));
+
+        service.sincroniza();
+
+        assertThat(service.estaRevogado(claims(legado.toString(), "default", Instant.now(), expiracao))).isTrue();
+        assertThat(service.estaRevogado(claims(acme.toString(), "acme", Instant.now(), expiracao))).isTrue();
+        assertThat(service.estaRevogado(claims(acme.toString(), "default", Instant.now(), expiracao))).isFalse();
+    }
+
+    @Test
+    void acimaDoLimiteDeJtiDoTenantRevogaTodosOsTokensDoUsuario() {
+        service = carregado(1, 100_000);
+        Instant expiracao = Instant.now().plus(Duration.ofMinutes(30));
+        service.revogaToken(claims(UUID.randomUUID().toString(), "default", Instant.now(), expiracao));
+
+        Claims excedente = claims(UUID.randomUUID().toString(), "default", Instant.now().minusSeconds(10), expiracao);
+        service.revogaToken(excedente);
+
+        ArgumentCaptor<TokenRevogado> salvos = ArgumentCaptor.forClass(TokenRevogado.class);
+        verify(repository, times(2)).save(salvos.capture());
+        assertThat(salvos.getAllValues().get(0).getChave()).startsWith("jti:default:");
+        assertThat(salvos.getAllValues().get(1).getChave()).isEqualTo("sub:default:" + EMAIL);
+        assertThat(service.estaRevogado(excedente)).isTrue();
+    }
+
+    @Test
+    void acimaDoLimiteDeUsuariosOCorteValeParaOTenantInteiro() {
+        service = carregado(1_000_000, 1);
+        Claims outroUsuario = Jwts.claims()
+                .subject("outro@teste.local")
+                .issuedAt(Date.from(Instant.now().minusSeconds(10)))
+                .expiration(Date.from(Instant.now().plus(Duration.ofMinutes(30))))
+                .build();
+        assertThat(service.estaRevogado(outroUsuario)).isFalse();
+
+        service.revogaTokensDoUsuario("primeiro@teste.local");
+        service.revogaTokensDoUsuario("segundo@teste.local");
+
+        assertThat(service.estaRevogado(outroUsuario)).isTrue();
+    }
+
+    // Serviço após a carga inicial (sem revogações no banco), como depois da inicialização da aplicação
+    private RevogacaoTokenService carregado(long maximoTokens, int maximoUsuarios) {
+        RevogacaoTokenService carregado = new RevogacaoTokenService(repository, transactionManager,
+                new TenantProperties(), maximoTokens, maximoUsuarios);
+        carregado.sincroniza();
+        return carregado;
+    }
+
+    private static Claims claims(String jti, String tenant, Instant emissao, Instant expiracao) {
+        ClaimsBuilder builder = Jwts.claims()
+                .subject(EMAIL)
+                .issuedAt(Date.from(emissao))
+                .expiration(Date.from(expiracao))
+                .add(JwtUtil.CLAIM_TENANT, tenant);
+        if (jti != null) {
+            builder.id(jti);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.ygorportes.usuario.infrastructure.tenant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dois tenants configurados sobre o mesmo H2: o tenant vem do token, as entidades são filtradas pelo @TenantId
+// (inclusive o findById) e cada tenant usa o próprio pool. Sem tarefas agendadas, que passariam por todos os pools.
+@SpringBootTest(properties = {
+        "app.scheduling.enabled=false",
+        "app.tenants.alfa.max-pool-size=2",
+        "app.tenants.beta.max-pool-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("integracao")
+class TenantIsolamentoTest {
+
+    private static final String ALFA = "alfa";
+    private static final String BETA = "beta";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void mesmoEmailPodeSerCadastradoEmCadaTenant() throws Exception {
+        String email = novoEmail();
+
+        cadastra(ALFA, email);
+        cadastra(BETA, email);
+
+        mockMvc.perform(post("/usuario").header(TenantFilter.CABECALHO_TENANT, ALFA)
+                        .contentType(MediaType.APPLICATION_JSON).content(usuario(email)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void tokenDeUmTenantNaoLeUsuarioDeOutro() throws Exception {
+        String emailAlfa = novoEmail();
+        String emailBeta = novoEmail();
+        cadastra(ALFA, emailAlfa);
+        cadastra(BETA, emailBeta);
+        String tokenAlfa = login(ALFA, emailAlfa);
+
+        mockMvc.perform(get("/usuario").param("email", emailAlfa).header(HttpHeaders.AUTHORIZATION, tokenAlfa))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/usuario").param("email", emailBeta).header(HttpHeaders.AUTHORIZATION, tokenAlfa))
+                .andExpect(status().isNotFound());
+        // O tenant do token prevalece sobre o cabeçalho
+        mockMvc.perform(get("/usuario").param("email", emailBeta).header(HttpHeaders.AUTHORIZATION, tokenAlfa)
+                        .header(TenantFilter.CABECALHO_TENANT, BETA))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void tokenDeUmTenantNaoAlteraEnderecoNemTelefoneDeOutro() throws Exception {
+        String emailAlfa = novoEmail();
+        String emailBeta = novoEmail();
+        cadastra(ALFA, emailAlfa);
+        JsonNode beta = cadastra(BETA, emailBeta);
+        String tokenAlfa = login(ALFA, emailAlfa);
+        String idEnderecoBeta = beta.path("enderecos").path(0).path("id").asText();
+        String idTelefoneBeta = beta.path("telefones").path(0).path("id").asText();
+
+        mockMvc.perform(put("/usuario/endereco").param("id", idEnderecoBeta)
+                        .header(HttpHeaders.AUTHORIZATION, tokenAlfa)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"numero\": \"invadido\"}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/usuario/telefone").param("id", idTelefoneBeta)
+                        .header(HttpHeaders.AUTHORIZATION, tokenAlfa)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"numero\": \"000000000\"}"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/usuario").param("email", emailBeta)
+                        .header(HttpHeaders.AUTHORIZATION, login(BETA, emailBeta)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enderecos[0].numero").value("1"))
+                .andExpect(jsonPath("$.telefones[0].numero").value("999999999"));
+    }
+
+    @Test
+    void cadaTenantUsaOProprioPool() throws Exception {
+        String emailAlfa = novoEmail();
+        cadastra(ALFA, emailAlfa);
+        String tokenAlfa = login(ALFA, emailAlfa);
+
+        double alfaAntes = conexoesObtidas("primary-" + ALFA);
+        double betaAntes = conexoesObtidas("primary-" + BETA);
+        double padraoAntes = conexoesObtidas("primary-" + TenantContext.TENANT_PADRAO);
+        mockMvc.perform(get("/usuario").param("email", emailAlfa).header(HttpHeaders.AUTHORIZATION, tokenAlfa))
+                .andExpect(status().isOk());
+
+        assertThat(conexoesObtidas("primary-" + ALFA)).isGreaterThan(alfaAntes);
+        assertThat(conexoesObtidas("primary-" + BETA)).isEqualTo(betaAntes);
+        assertThat(conexoesObtidas("primary-" + TenantContext.TENANT_PADRAO)).isEqualTo(padraoAntes);
+    }
+
+    private JsonNode cadastra(String tenant, String email) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/usuario").header(TenantFilter.CABECALHO_TENANT, tenant)
+                        .contentType(MediaType.APPLICATION_JSON).content(usuario(email)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private String login(String tenant, String email) throws Exception {
+        return mockMvc.perform(post("/usuario/login").header(TenantFilter.CABECALHO_TENANT, tenant)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"%s\", \"senha\": \"senha\"}".formatted(email)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private double conexoesObtidas(String pool) {
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static String usuario(String email) {
+        return """
+                {"nome": "Tenant", "email": "%s", "senha": "senha",
+                 "enderecos": [{"rua": "Rua A", "numero": "1", "cidade": "Cidade", "estado": "SP", "cep": "00000-000"}],
+                 "telefones": [{"numero": "999999999", "ddd": "11"}]}
+                """.formatted(email);
+    }
+
+    private static String novoEmail() {
+        return "tenant-" + UUID.randomUUID() + "@teste.local";
+    }
+}